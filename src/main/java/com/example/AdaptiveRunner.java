@@ -0,0 +1,293 @@
+package com.example;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Runs a game while moving it between engines as its shape changes. Sparse
+ * patterns are stepped by {@link GameOfLife}, dense ones by
+ * {@link BitTileEngine}, and once the population holds steady the game is
+ * handed to a {@link Simulation} so a repeating end state can be jumped
+ * through instead of stepped.
+ *
+ * Population, bounding box area, density and change rate are sampled every
+ * {@link #CHECK_INTERVAL} generations, and the engine is only switched at those
+ * points. Density is the share of the occupied 64x64 tiles that is alive, and
+ * together with the population it is all that decides between the sparse and
+ * dense engines. A step of {@link GameOfLife} costs about the same for each
+ * living cell and a step of {@link BitTileEngine} about the same for each
+ * occupied tile, so that share is what says which one is cheaper. Bounding box
+ * area is left out because a few escaping gliders stretch the box without
+ * adding work to either engine, and so is the change rate, since neither
+ * engine costs less when fewer cells change. The change rate is only used to
+ * notice a pattern that has stopped changing, and the area is given in the
+ * reason for a switch. Leaving a mode needs a wider margin than entering it
+ * and every mode is kept for a few samples at least, so a pattern near a
+ * threshold does not flip back and forth. Every switch is kept with its reason
+ * in {@link #getSwitches}.
+ *
+ * The runner steps the engines itself instead of going through
+ * {@link GameOfLife#runGenerations}, since that loop belongs to a single
+ * {@link GameOfLife} and counts generations in an int, while a cycle jump can
+ * move a run far past that. Listeners and printing are not part of an
+ * adaptive run, the cells can be read with {@link #getCells} between calls to
+ * {@link #advance}.
+ */
+public class AdaptiveRunner {
+    /** Generations between samples, engines are only switched at these points */
+    public static final int CHECK_INTERVAL = 16;
+
+    // Tile density and population needed to move to the dense engine, and to stay there. A tile
+    // steps about as fast as a single cell does in a hash set, so a few cells per tile is enough.
+    static final double DENSE_ENTER_DENSITY = 0.001;
+    static final double DENSE_EXIT_DENSITY = 0.0004;
+    static final long DENSE_ENTER_POPULATION = 256;
+    static final long DENSE_EXIT_POPULATION = 128;
+    // Samples in a row the population must stay within STEADY_SPREAD of its peak to look for a cycle
+    static final int STEADY_SAMPLES = 4;
+    static final double STEADY_SPREAD = 0.005;
+    // Samples a mode is kept at least, so a switch is not immediately undone
+    static final int MIN_DWELL = 2;
+
+    private static final double TILE_AREA = SpatialIndex.TILE_SIZE * SpatialIndex.TILE_SIZE;
+
+    /**
+     * The ways a game can be run
+     */
+    public enum Mode {
+        /** Hash set stepping with {@link GameOfLife} */
+        SPARSE,
+        /** Bit packed tiles with {@link BitTileEngine} */
+        DENSE,
+        /** A {@link Simulation} looking for a cycle to jump through */
+        CYCLE
+    }
+
+    /**
+     * A change of engine
+     *
+     * @param generation - The generation the switch happened at
+     * @param from       - The mode before the switch
+     * @param to         - The mode after the switch
+     * @param reason     - Why the switch was made
+     */
+    public record EngineSwitch(long generation, Mode from, Mode to, String reason) {
+        @Override
+        public String toString() {
+            return "Generation " + generation + ": " + from + " -> " + to + " (" + reason + ")";
+        }
+    }
+
+    private final GameOfLife sparse = new GameOfLife(new GenerationStats());
+    private final BitTileEngine dense = new BitTileEngine();
+    private final List<EngineSwitch> switches = new ArrayList<>();
+    private final ArrayDeque<Long> recentPopulations = new ArrayDeque<>();
+    private Set<Cell> cells;
+    private long generation;
+    private Mode mode = Mode.SPARSE;
+    private int samplesInMode;
+
+    // The simulation of the cycle mode and the generation it started at
+    private Simulation simulation;
+    private long simulationStart;
+    // Grows each time a search for a cycle fails so a pattern that never repeats is not retried constantly
+    private int steadySamplesNeeded = STEADY_SAMPLES;
+
+    /**
+     * Create a runner at generation zero
+     *
+     * @param startingGeneration - The living cells of generation zero
+     */
+    public AdaptiveRunner(Set<Cell> startingGeneration) {
+        if (startingGeneration == null) {
+            throw new IllegalArgumentException("Error: Starting generation must not be null or empty");
+        }
+        this.cells = new HashSet<>(startingGeneration);
+
+        // Dense starting patterns go straight to the dense engine instead of waiting for the first sample
+        BoundingBox box = BoundingBox.of(cells);
+        double density = tileDensity(cells.size(), countTiles(cells));
+        if (density >= DENSE_ENTER_DENSITY && cells.size() >= DENSE_ENTER_POPULATION) {
+            switchTo(Mode.DENSE, describe(density, cells.size(), box.area()));
+        }
+    }
+
+    /**
+     * @return - The index of the generation currently held
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return - A read only view of the living cells of the current generation
+     */
+    public Set<Cell> getCells() {
+        return Collections.unmodifiableSet(cells);
+    }
+
+    /**
+     * @return - The mode the game is currently run in
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return - Every engine switch so far, oldest first
+     */
+    public List<EngineSwitch> getSwitches() {
+        return Collections.unmodifiableList(switches);
+    }
+
+    /**
+     * Advance the game by a number of generations
+     *
+     * @param steps - How many generations to advance, zero or more
+     * @return - The index of the generation reached
+     */
+    public long advance(long steps) {
+        if (steps < 0) {
+            throw new IllegalArgumentException("Error: Number of steps must not be negative");
+        }
+        if (steps > Long.MAX_VALUE - generation) {
+            throw new IllegalArgumentException("Error: Generation index would exceed " + Long.MAX_VALUE);
+        }
+        long target = generation + steps;
+        while (generation < target) {
+            if (mode == Mode.CYCLE && simulation.getPeriod() > 0) {
+                // A confirmed cycle is jumped straight to the target
+                simulation.advanceTo(target - simulationStart);
+                cells = simulation.getCells();
+                generation = target;
+                continue;
+            }
+            long chunk = Math.min(CHECK_INTERVAL - generation % CHECK_INTERVAL, target - generation);
+            long changes = step(chunk);
+            generation += chunk;
+            if (generation % CHECK_INTERVAL == 0) {
+                sample(changes);
+            }
+        }
+        return generation;
+    }
+
+    // Run a stretch of generations in the current mode, returning the changes in its last step
+    private long step(long generations) {
+        switch (mode) {
+            case SPARSE -> {
+                for (long step = 0; step < generations; step++) {
+                    cells = sparse.getNextGeneration(cells);
+                }
+                return sparse.getStats().getBirths() + sparse.getStats().getDeaths();
+            }
+            case DENSE -> {
+                cells = dense.advance(cells, generations);
+                return dense.getLastChanges();
+            }
+            default -> {
+                Set<Cell> before = cells;
+                simulation.advance(generations);
+                cells = simulation.getCells();
+                return before.equals(cells) ? 0 : -1; // Only whether anything changed is known here
+            }
+        }
+    }
+
+    // Look at the shape of the current generation and switch engines if another fits better
+    private void sample(long changes) {
+        samplesInMode++;
+        long population = cells.size();
+        BoundingBox box = mode == Mode.SPARSE ? sparse.getStats().getBoundingBox() : BoundingBox.of(cells);
+        double area = box == null ? 0 : box.area();
+        double density = tileDensity(population, occupiedTiles());
+        recentPopulations.addLast(population);
+        if (recentPopulations.size() > steadySamplesNeeded) {
+            recentPopulations.removeFirst();
+        }
+        if (samplesInMode < MIN_DWELL) {
+            return;
+        }
+
+        if (mode == Mode.CYCLE) {
+            if (simulation.getPeriod() == 0 && generation - simulationStart >= 2L * Simulation.DEFAULT_MAX_PERIOD) {
+                steadySamplesNeeded *= 4;
+                boolean denseFits = density >= DENSE_ENTER_DENSITY && population >= DENSE_ENTER_POPULATION;
+                switchTo(denseFits ? Mode.DENSE : Mode.SPARSE,
+                        "no cycle within " + (generation - simulationStart) + " generations");
+            }
+            return;
+        }
+        if (isSteady()) {
+            switchTo(Mode.CYCLE, "population steady at " + population + " for " + recentPopulations.size()
+                    + " samples");
+        } else if (mode == Mode.SPARSE && density >= DENSE_ENTER_DENSITY && population >= DENSE_ENTER_POPULATION) {
+            switchTo(Mode.DENSE, describe(density, population, area));
+        } else if (mode == Mode.DENSE && (density < DENSE_EXIT_DENSITY || population < DENSE_EXIT_POPULATION)) {
+            switchTo(Mode.SPARSE, describe(density, population, area));
+        } else if (changes == 0 && population > 0) {
+            switchTo(Mode.CYCLE, "no cells changed");
+        }
+    }
+
+    private static String describe(double density, long population, double area) {
+        return String.format(Locale.ROOT, "tile density %.4f, %d alive in a box of %.0f cells", density, population,
+                area);
+    }
+
+    private long occupiedTiles() {
+        if (mode == Mode.SPARSE) {
+            return Arrays.stream(sparse.getStats().getDensityHistogram()).sum();
+        }
+        if (mode == Mode.DENSE) {
+            return dense.getTileCount();
+        }
+        return countTiles(cells);
+    }
+
+    private static long countTiles(Set<Cell> cells) {
+        Set<Cell> tiles = new HashSet<>();
+        for (Cell cell : cells) {
+            tiles.add(new Cell(cell.x() >> SpatialIndex.TILE_SHIFT, cell.y() >> SpatialIndex.TILE_SHIFT));
+        }
+        return tiles.size();
+    }
+
+    // The share of the occupied tiles that is alive
+    private static double tileDensity(long population, long tiles) {
+        return tiles == 0 ? 0 : population / (tiles * TILE_AREA);
+    }
+
+    private boolean isSteady() {
+        if (recentPopulations.size() < steadySamplesNeeded) {
+            return false;
+        }
+        long low = Long.MAX_VALUE, high = 0;
+        for (long population : recentPopulations) {
+            low = Math.min(low, population);
+            high = Math.max(high, population);
+        }
+        return high - low <= Math.max(2, high * STEADY_SPREAD);
+    }
+
+    private void switchTo(Mode next, String reason) {
+        switches.add(new EngineSwitch(generation, mode, next, reason));
+        if (next == Mode.CYCLE) {
+            // The cycle search steps with whichever engine suited the pattern so far
+            LifeEngine engine = mode == Mode.DENSE ? dense : new GameOfLife();
+            simulation = new Simulation(cells, engine, Simulation.DEFAULT_MAX_PERIOD);
+            simulationStart = generation;
+        } else {
+            simulation = null;
+        }
+        mode = next;
+        samplesInMode = 0;
+        recentPopulations.clear();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example;
+
+import java.util.Set;
+
+/**
+ * The smallest rectangle containing every living cell of a generation, with
+ * inclusive bounds
+ */
+public record BoundingBox(long minX, long minY, long maxX, long maxY) {
+
+    /**
+     * Scan a set of cells for the rectangle that contains all of them
+     *
+     * @param cells - The cells to be contained
+     * @return - The bounding box of the cells, or null if the set is empty
+     */
+    public static BoundingBox of(Set<Cell> cells) {
+        if (cells.isEmpty()) {
+            return null;
+        }
+        long minX = Long.MAX_VALUE, maxX = Long.MIN_VALUE;
+        long minY = Long.MAX_VALUE, maxY = Long.MIN_VALUE;
+
+        for (Cell cell : cells) {
+            minX = Math.min(minX, cell.x());
+            maxX = Math.max(maxX, cell.x());
+            minY = Math.min(minY, cell.y());
+            maxY = Math.max(maxY, cell.y());
+        }
+        return new BoundingBox(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * The smallest box containing both boxes
+     *
+     * @param a - A box, or null for no cells
+     * @param b - Another box, or null for no cells
+     * @return - The box containing both, or null if both are null
+     */
+    public static BoundingBox union(BoundingBox a, BoundingBox b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return new BoundingBox(Math.min(a.minX(), b.minX()), Math.min(a.minY(), b.minY()),
+                Math.max(a.maxX(), b.maxX()), Math.max(a.maxY(), b.maxY()));
+    }
+
+    /**
+     * @param cell - The cell to check
+     * @return - true if the cell lies inside the box
+     */
+    public boolean contains(Cell cell) {
+        return cell.x() >= minX && cell.x() <= maxX && cell.y() >= minY && cell.y() <= maxY;
+    }
+
+    /**
+     * @return - The number of cells covered by the box, as a double since the
+     *         area of boxes spanning the whole range does not fit in a long
+     */
+    public double area() {
+        // Widths are computed unsigned so boxes wider than Long.MAX_VALUE stay positive
+        double width = unsignedToDouble(maxX - minX) + 1;
+        double height = unsignedToDouble(maxY - minY) + 1;
+        return width * height;
+    }
+
+    private static double unsignedToDouble(long value) {
+        return value >= 0 ? value : (value >>> 1) * 2.0 + (value & 1);
+    }
+}
@@ -1,13 +1,45 @@
 package com.example;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class GameConfig {
     boolean printCells;
     boolean printGrid;
     boolean runTime;
+    GenerationWriter output;
+    List<GenerationListener> listeners = new ArrayList<>();
 
     public GameConfig(boolean printCells, boolean printGrid, boolean runTime) {
         this.printCells = printCells;
         this.printGrid = printGrid;
         this.runTime = runTime;
     }
+
+    /**
+     * Route printed generations through an asynchronous writer instead of
+     * printing them on the game loop
+     * 
+     * @param output - The writer generations are handed to, or null to print
+     *               synchronously
+     * @return - This config
+     */
+    public GameConfig setOutput(GenerationWriter output) {
+        this.output = output;
+        return this;
+    }
+
+    /**
+     * Register a listener that is handed every generation of a run
+     * 
+     * @param listener - The listener to add
+     * @return - This config
+     */
+    public GameConfig addListener(GenerationListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Error: Listener must not be null");
+        }
+        listeners.add(listener);
+        return this;
+    }
 }
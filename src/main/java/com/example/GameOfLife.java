@@ -1,11 +1,43 @@
 package com.example;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.Scanner;
 
-public class GameOfLife {
+public class GameOfLife implements LifeEngine {
+    private final GenerationStats stats;
+    // The last generation this engine produced, stats are only carried over when stepping from it
+    private Set<Cell> lastGeneration;
+
+    /**
+     * Create an engine that does not track generation statistics
+     */
+    public GameOfLife() {
+        this(null);
+    }
+
+    /**
+     * Create an engine that keeps the given statistics up to date as it steps
+     * 
+     * @param stats - Statistics updated from the births and deaths of each step
+     */
+    public GameOfLife(GenerationStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * @return - The statistics of the latest generation computed, or null if this
+     *         engine does not track them
+     */
+    public GenerationStats getStats() {
+        return stats;
+    }
+
     /**
      * Used to generate a set of neighbor cells on a 2x2 grid
      * 
@@ -51,10 +83,19 @@ public class GameOfLife {
      * @return - Returns the new set of living cells after applying the rules of the
      *         game
      */
+    @Override
     public Set<Cell> getNextGeneration(Set<Cell> aliveCells) {
         Set<Cell> newLivingCells = new HashSet<>();
         Set<Cell> potentialCells = new HashSet<>();
 
+        if (stats != null) {
+            // Stepping from anything other than our own last result needs a full rescan
+            if (aliveCells != lastGeneration) {
+                stats.reset(aliveCells);
+            }
+            stats.beginStep();
+        }
+
         // Fill out potential cells with all living cells and neighbors
         for (Cell cell : aliveCells) {
             potentialCells.add(cell); // add a cell
@@ -68,13 +109,21 @@ public class GameOfLife {
             if (aliveCells.contains(cell)) { // If a cell is alive, apply rule
                 if (livingNeighbors == 2 || livingNeighbors == 3) {
                     newLivingCells.add(cell);
+                } else if (stats != null) {
+                    stats.recordDeath(cell);
                 }
             } else { // If the cell is dead, apply rule
                 if (livingNeighbors == 3) {
                     newLivingCells.add(cell);
+                    if (stats != null) {
+                        stats.recordBirth(cell);
+                    }
                 }
             }
         }
+        if (stats != null) {
+            lastGeneration = newLivingCells;
+        }
         return newLivingCells;
     }
 
@@ -92,17 +141,34 @@ public class GameOfLife {
         LifeHelpers.validateGameInputs(generations, startingGeneration, config);
         Set<Cell> resultingGeneration = new HashSet<>(startingGeneration);
         try {
+            for (GenerationListener listener : config.listeners) {
+                listener.onGeneration(0, resultingGeneration);
+            }
             for (int runs = 1; runs < generations; runs++) {
                 long startTime = System.nanoTime(); // Start timer for game run time
                 Set<Cell> newGeneration = getNextGeneration(resultingGeneration);
                 resultingGeneration = newGeneration;
+                for (GenerationListener listener : config.listeners) {
+                    listener.onGeneration(runs, resultingGeneration);
+                }
 
                 // put our working helper functions here..
-                if (config.printCells) {
-                    LifeHelpers.printGenerations(resultingGeneration);
-                }
-                if (config.printGrid) {
-                    LifeHelpers.printGenerationGrid(resultingGeneration);
+                if (config.output != null) {
+                    if (config.printCells || config.printGrid) {
+                        // Generations are never modified once computed, so the writer can share it
+                        config.output.submit(runs, Collections.unmodifiableSet(resultingGeneration),
+                                config.printCells, config.printGrid);
+                    }
+                } else {
+                    if (config.printCells) {
+                        LifeHelpers.printGenerations(resultingGeneration);
+                    }
+                    if (config.printGrid && stats != null) {
+                        // Reuse the tracked bounding box instead of rescanning the generation
+                        LifeHelpers.printGenerationGrid(resultingGeneration, stats.getBoundingBox(), System.out);
+                    } else if (config.printGrid) {
+                        LifeHelpers.printGenerationGrid(resultingGeneration);
+                    }
                 }
                 if (config.runTime) {
                     LifeHelpers.printGameRuntime(startTime);
@@ -123,7 +189,7 @@ public class GameOfLife {
             return;
         }
         try {
-            Set<Cell> startingCells = LifeHelpers.getCellsFromFile(args[0]);
+            Set<Cell> startingCells = PatternIO.read(Path.of(args[0]));
 
             Scanner scanner = new Scanner(System.in);
             System.out.println("Enter number of generations to run: ");
@@ -136,8 +202,10 @@ public class GameOfLife {
 
             GameOfLife game = new GameOfLife();
             game.runGenerations(generations, startingCells, config);
-        } catch (FileNotFoundException e) {
+        } catch (FileNotFoundException | NoSuchFileException e) {
             System.err.println("Error: File not found.");
+        } catch (IOException e) {
+            System.err.println("Error: Could not read file: " + e.getMessage());
         } catch (IllegalArgumentException e) {
             System.err.println("Error: " + e.getMessage());
         }
@@ -0,0 +1,22 @@
+package com.example;
+
+import java.util.Set;
+
+/**
+ * Receives each generation of a run as soon as it has been computed. Listeners
+ * run on the game loop, so anything slow should be handed off to another
+ * thread.
+ */
+public interface GenerationListener {
+
+    /**
+     * Called with the starting generation and every generation computed after it
+     *
+     * @param generation - The index of the generation, the starting generation is
+     *                   zero
+     * @param cells      - The living cells of the generation, which are never
+     *                   modified afterwards and must not be modified by the
+     *                   listener
+     */
+    void onGeneration(long generation, Set<Cell> cells);
+}
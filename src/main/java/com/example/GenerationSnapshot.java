@@ -0,0 +1,93 @@
+package com.example;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable view of one completed generation that can be read from any
+ * thread while the game keeps running. Snapshots share the generation's cell
+ * set instead of copying it, which is safe because generations are never
+ * modified once computed, and they are reclaimed by the garbage collector as
+ * soon as no reader holds on to them.
+ *
+ * The first region query builds a {@link SpatialIndex} of the generation, which
+ * costs one pass over the population, and every query after that only visits
+ * the tiles overlapping its region.
+ */
+public final class GenerationSnapshot {
+    private final long generation;
+    private final Set<Cell> cells;
+    // Computed by the first reader that asks, so publishing stays cheap for the game loop
+    private volatile BoundingBox boundingBox;
+    private volatile boolean boundingBoxComputed;
+    private volatile SpatialIndex index;
+
+    /**
+     * @param generation - The index of the generation
+     * @param cells      - The living cells, which must never be modified afterwards
+     */
+    public GenerationSnapshot(long generation, Set<Cell> cells) {
+        this.generation = generation;
+        this.cells = Collections.unmodifiableSet(cells);
+    }
+
+    /**
+     * @return - The index of the generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return - A read only view of the living cells
+     */
+    public Set<Cell> getCells() {
+        return cells;
+    }
+
+    /**
+     * @return - The number of living cells
+     */
+    public int getPopulation() {
+        return cells.size();
+    }
+
+    /**
+     * @return - The bounding box of the living cells, or null if there are none
+     */
+    public BoundingBox getBoundingBox() {
+        if (!boundingBoxComputed) {
+            // Racing readers may both compute it, they always agree on the result
+            boundingBox = BoundingBox.of(cells);
+            boundingBoxComputed = true;
+        }
+        return boundingBox;
+    }
+
+    /**
+     * @param region - The rectangle to look in, bounds inclusive
+     * @return - The living cells inside the region, ordered by row then column
+     */
+    public List<Cell> cellsIn(BoundingBox region) {
+        return index().query(region);
+    }
+
+    /**
+     * @param region - The rectangle to look in, bounds inclusive
+     * @return - The number of living cells inside the region
+     */
+    public long countIn(BoundingBox region) {
+        return index().count(region);
+    }
+
+    private SpatialIndex index() {
+        SpatialIndex built = index;
+        if (built == null) {
+            // Racing readers may both build one, the index is only read once it is published
+            built = SpatialIndex.of(cells);
+            index = built;
+        }
+        return built;
+    }
+}
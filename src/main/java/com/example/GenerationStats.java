@@ -0,0 +1,228 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Population, bounding box, birth and death counts and a coarse density
+ * histogram for the latest generation computed by an engine. The values are
+ * kept up to date from the births and deaths of each step, so the cost of a
+ * step is proportional to the number of cells that changed rather than the
+ * population, and every query is cheap. A {@link SpatialIndex} of the living
+ * cells is kept up to date the same way for region queries.
+ *
+ * Stats are updated by the game loop and are not safe to read from other
+ * threads while a run is in progress.
+ */
+public class GenerationStats {
+    /** Width and height of the tiles the density histogram is counted over */
+    public static final int TILE_SIZE = SpatialIndex.TILE_SIZE;
+    /** Number of histogram buckets, bucket i counts tiles with 2^i to 2^(i+1) - 1 cells */
+    public static final int HISTOGRAM_BUCKETS = 13;
+
+    // Living cells per column and per row, their first and last keys form the bounding box
+    private final TreeMap<Long, Integer> columnCounts = new TreeMap<>();
+    private final TreeMap<Long, Integer> rowCounts = new TreeMap<>();
+    private final SpatialIndex index = new SpatialIndex();
+    private final long[] densityHistogram = new long[HISTOGRAM_BUCKETS];
+    private final List<Cell> lastBirths = new ArrayList<>();
+    private final List<Cell> lastDeaths = new ArrayList<>();
+
+    private long population;
+    private long births;
+    private long deaths;
+    private long totalBirths;
+    private long totalDeaths;
+    private long steps;
+
+    /**
+     * Discard everything tracked so far and start over from a full generation
+     *
+     * @param cells - The living cells to track from now on
+     */
+    public void reset(Set<Cell> cells) {
+        columnCounts.clear();
+        rowCounts.clear();
+        index.clear();
+        Arrays.fill(densityHistogram, 0);
+        lastBirths.clear();
+        lastDeaths.clear();
+        population = 0;
+        births = 0;
+        deaths = 0;
+        totalBirths = 0;
+        totalDeaths = 0;
+        steps = 0;
+        for (Cell cell : cells) {
+            add(cell);
+        }
+    }
+
+    /**
+     * Mark the start of a new step, clearing the birth and death counts of the
+     * previous one
+     */
+    public void beginStep() {
+        births = 0;
+        deaths = 0;
+        lastBirths.clear();
+        lastDeaths.clear();
+        steps++;
+    }
+
+    /**
+     * @param cell - A dead cell that came alive in the current step
+     */
+    public void recordBirth(Cell cell) {
+        births++;
+        totalBirths++;
+        lastBirths.add(cell);
+        add(cell);
+    }
+
+    /**
+     * @param cell - A living cell that died in the current step
+     */
+    public void recordDeath(Cell cell) {
+        deaths++;
+        totalDeaths++;
+        lastDeaths.add(cell);
+        remove(cell);
+    }
+
+    /**
+     * @return - The number of living cells
+     */
+    public long getPopulation() {
+        return population;
+    }
+
+    /**
+     * @return - The bounding box of the living cells, or null if there are none
+     */
+    public BoundingBox getBoundingBox() {
+        if (population == 0) {
+            return null;
+        }
+        return new BoundingBox(columnCounts.firstKey(), rowCounts.firstKey(), columnCounts.lastKey(),
+                rowCounts.lastKey());
+    }
+
+    /**
+     * @return - The share of the bounding box that is alive, zero when empty
+     */
+    public double getDensity() {
+        BoundingBox box = getBoundingBox();
+        return box == null ? 0 : population / box.area();
+    }
+
+    /**
+     * @return - The number of cells born in the latest step
+     */
+    public long getBirths() {
+        return births;
+    }
+
+    /**
+     * @return - The number of cells that died in the latest step
+     */
+    public long getDeaths() {
+        return deaths;
+    }
+
+    /**
+     * @return - The cells born in the latest step, which are replaced at the
+     *         start of the next step
+     */
+    public List<Cell> getLastBirths() {
+        return Collections.unmodifiableList(lastBirths);
+    }
+
+    /**
+     * @return - The cells that died in the latest step, which are replaced at the
+     *         start of the next step
+     */
+    public List<Cell> getLastDeaths() {
+        return Collections.unmodifiableList(lastDeaths);
+    }
+
+    /**
+     * @return - The number of cells born since the last reset
+     */
+    public long getTotalBirths() {
+        return totalBirths;
+    }
+
+    /**
+     * @return - The number of cells that died since the last reset
+     */
+    public long getTotalDeaths() {
+        return totalDeaths;
+    }
+
+    /**
+     * @return - The number of steps tracked since the last reset
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return - A copy of the density histogram, where bucket i holds the number
+     *         of occupied tiles containing between 2^i and 2^(i+1) - 1 living
+     *         cells
+     */
+    public long[] getDensityHistogram() {
+        return densityHistogram.clone();
+    }
+
+    /**
+     * @return - The spatial index of the living cells, which is updated in place
+     *         every step and must not be modified by callers
+     */
+    public SpatialIndex getIndex() {
+        return index;
+    }
+
+    private void add(Cell cell) {
+        population++;
+        columnCounts.merge(cell.x(), 1, Integer::sum);
+        rowCounts.merge(cell.y(), 1, Integer::sum);
+
+        index.add(cell);
+        int tilePopulation = index.tilePopulation(cell);
+        moveTile(tilePopulation - 1, tilePopulation);
+    }
+
+    private void remove(Cell cell) {
+        population--;
+        decrement(columnCounts, cell.x());
+        decrement(rowCounts, cell.y());
+
+        index.remove(cell);
+        int remaining = index.tilePopulation(cell);
+        moveTile(remaining + 1, remaining);
+    }
+
+    private static void decrement(TreeMap<Long, Integer> counts, long key) {
+        counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    // Move a tile between histogram buckets when its population changes
+    private void moveTile(int oldPopulation, int newPopulation) {
+        if (oldPopulation > 0) {
+            densityHistogram[bucket(oldPopulation)]--;
+        }
+        if (newPopulation > 0) {
+            densityHistogram[bucket(newPopulation)]++;
+        }
+    }
+
+    private static int bucket(int tilePopulation) {
+        return 31 - Integer.numberOfLeadingZeros(tilePopulation);
+    }
+}
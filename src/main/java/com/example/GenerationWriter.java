@@ -0,0 +1,210 @@
+package com.example;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded asynchronous writer that formats and prints generations on its own
+ * thread so the game loop can hand off a finished generation and keep
+ * stepping. Generations handed to the writer must not be modified afterwards.
+ */
+public class GenerationWriter implements AutoCloseable {
+
+    /**
+     * What to do when the game loop produces generations faster than they can
+     * be written and the queue is full
+     */
+    public enum OverflowPolicy {
+        /** Wait for the writer to make room, every generation is written */
+        BLOCK,
+        /** Skip the incoming generation, frames already queued are kept */
+        DROP,
+        /** Discard the oldest queued generation so the newest is always written */
+        COALESCE
+    }
+
+    private record Frame(long generation, Set<Cell> cells, boolean printCells, boolean printGrid) {
+    }
+
+    // Marker frame used to tell the writer thread to finish
+    private static final Frame END = new Frame(-1, Set.of(), false, false);
+
+    private final BlockingQueue<Frame> queue;
+    private final OverflowPolicy policy;
+    private final PrintStream out;
+    private final boolean closeOut;
+    private final Thread writerThread;
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong writtenFrames = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Create a writer for the given stream
+     *
+     * @param out      - The stream generations are written to
+     * @param policy   - How a full queue is handled
+     * @param capacity - The maximum number of generations waiting to be written
+     * @param closeOut - Whether the stream is closed together with the writer
+     */
+    public GenerationWriter(PrintStream out, OverflowPolicy policy, int capacity, boolean closeOut) {
+        if (out == null || policy == null) {
+            throw new IllegalArgumentException("Error: Output stream and overflow policy must not be null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Error: Writer capacity must be greater than zero");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.out = out;
+        this.closeOut = closeOut;
+        this.writerThread = new Thread(this::drain, "generation-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Create a writer that prints to standard out through its own buffer
+     *
+     * @param policy   - How a full queue is handled
+     * @param capacity - The maximum number of generations waiting to be written
+     * @return - A started writer
+     */
+    public static GenerationWriter toStdout(OverflowPolicy policy, int capacity) {
+        PrintStream stdout = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16));
+        return new GenerationWriter(stdout, policy, capacity, false);
+    }
+
+    /**
+     * Create a writer that prints to a file, replacing any existing contents
+     *
+     * @param path     - The file generations are written to
+     * @param policy   - How a full queue is handled
+     * @param capacity - The maximum number of generations waiting to be written
+     * @return - A started writer
+     * @throws IOException
+     */
+    public static GenerationWriter toFile(Path path, OverflowPolicy policy, int capacity) throws IOException {
+        PrintStream file = new PrintStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        return new GenerationWriter(file, policy, capacity, true);
+    }
+
+    /**
+     * Hand a generation off to the writer thread
+     *
+     * @param generation - The index of the generation
+     * @param cells      - The living cells of the generation, must not be modified
+     *                   after being submitted
+     * @param printCells - Write the cell coordinates
+     * @param printGrid  - Write the grid representation
+     * @return - true if the generation was queued, false if it was dropped
+     */
+    public boolean submit(long generation, Set<Cell> cells, boolean printCells, boolean printGrid) {
+        if (closed) {
+            throw new IllegalStateException("Error: Writer has already been closed");
+        }
+        Frame frame = new Frame(generation, cells, printCells, printGrid);
+        switch (policy) {
+            case BLOCK:
+                try {
+                    queue.put(frame);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedFrames.incrementAndGet();
+                    return false;
+                }
+                return true;
+            case DROP:
+                if (!queue.offer(frame)) {
+                    droppedFrames.incrementAndGet();
+                    return false;
+                }
+                return true;
+            default:
+                // Make room by discarding the oldest waiting frames
+                while (!queue.offer(frame)) {
+                    if (queue.poll() != null) {
+                        droppedFrames.incrementAndGet();
+                    }
+                }
+                return true;
+        }
+    }
+
+    /**
+     * @return - The number of generations that were never written
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * @return - The number of generations written so far
+     */
+    public long getWrittenFrames() {
+        return writtenFrames.get();
+    }
+
+    /**
+     * Write out every queued generation, then stop the writer thread
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(END);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            out.flush();
+            if (closeOut) {
+                out.close();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                Frame frame = queue.take();
+                if (frame == END) {
+                    return;
+                }
+                write(frame);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Frame frame) {
+        try {
+            out.println("Generation " + frame.generation() + ":");
+            if (frame.printCells()) {
+                LifeHelpers.printGenerations(frame.cells(), out);
+            }
+            if (frame.printGrid() && !frame.cells().isEmpty()) {
+                LifeHelpers.printGenerationGrid(frame.cells(), out);
+            }
+            if (queue.isEmpty()) {
+                out.flush(); // Only pay for the flush once the writer has caught up
+            }
+            writtenFrames.incrementAndGet();
+        } catch (Exception e) {
+            System.err.println("An unexpected error occurred while writing generation " + frame.generation() + ": "
+                    + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.example;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Random access reader for a history file written by {@link HistoryRecorder}.
+ *
+ * The file starts with a header and is followed by one record per generation.
+ * Keyframe records hold every living cell, delta records hold the cells born and
+ * the cells that died since the previous generation. Each record is a type
+ * byte, the generation, the raw and compressed payload lengths and the deflated
+ * payload. Closing the recorder appends an index of keyframe offsets and a
+ * trailer pointing at it. Files without a trailer, for example after a crash,
+ * are indexed by scanning the records once.
+ *
+ * Loading a generation reads the nearest keyframe at or before it and replays
+ * the deltas up to it.
+ */
+public class HistoryArchive implements AutoCloseable {
+    static final long MAGIC = 0x4C49464548495354L; // "LIFEHIST"
+    static final long INDEX_MAGIC = 0x4C49464549445831L; // "LIFEIDX1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_HEADER_SIZE = 17;
+    static final int TRAILER_SIZE = 16;
+    static final byte KEYFRAME = 1;
+    static final byte DELTA = 2;
+
+    // Cells are stored in LifeHelpers.ROW_ORDER so neighbouring cells give small deltas
+
+    private final FileChannel channel;
+    private final TreeMap<Long, Long> keyframeOffsets = new TreeMap<>();
+    private final long recordsEnd;
+    private long firstGeneration = -1;
+    private long lastGeneration = -1;
+
+    private HistoryArchive(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = readFully(0, HEADER_SIZE);
+        if (header.getLong() != MAGIC || header.getInt() != VERSION) {
+            throw new IllegalArgumentException("Error: Not a generation history file");
+        }
+        this.recordsEnd = readIndex();
+    }
+
+    /**
+     * Open a history file for reading
+     *
+     * @param path - The file written by a HistoryRecorder
+     * @return - An archive that can load any recorded generation
+     * @throws IOException
+     */
+    public static HistoryArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new HistoryArchive(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return - The first recorded generation, or -1 if nothing was recorded
+     */
+    public long getFirstGeneration() {
+        return firstGeneration;
+    }
+
+    /**
+     * @return - The last recorded generation, or -1 if nothing was recorded
+     */
+    public long getLastGeneration() {
+        return lastGeneration;
+    }
+
+    /**
+     * @return - The number of keyframes in the archive
+     */
+    public int getKeyframeCount() {
+        return keyframeOffsets.size();
+    }
+
+    /**
+     * Rebuild the living cells of a recorded generation
+     *
+     * @param generation - The generation to load
+     * @return - The living cells of that generation
+     * @throws IOException
+     */
+    public Set<Cell> load(long generation) throws IOException {
+        Map.Entry<Long, Long> keyframe = keyframeOffsets.floorEntry(generation);
+        if (keyframe == null || generation > lastGeneration) {
+            throw new IllegalArgumentException("Error: Generation " + generation + " was not recorded");
+        }
+        Set<Cell> cells = new HashSet<>();
+        long offset = keyframe.getValue();
+        while (offset < recordsEnd) {
+            ByteBuffer recordHeader = readFully(offset, RECORD_HEADER_SIZE);
+            byte type = recordHeader.get();
+            long recordGeneration = recordHeader.getLong();
+            int rawLength = recordHeader.getInt();
+            int compressedLength = recordHeader.getInt();
+            if (recordGeneration > generation) {
+                break;
+            }
+            ByteBuffer payload = inflate(readFully(offset + RECORD_HEADER_SIZE, compressedLength), rawLength);
+            if (type == KEYFRAME) {
+                cells.addAll(decodeCells(payload));
+            } else {
+                List<Cell> births = decodeCells(payload);
+                List<Cell> deaths = decodeCells(payload);
+                cells.addAll(births);
+                for (Cell cell : deaths) {
+                    cells.remove(cell);
+                }
+            }
+            if (recordGeneration == generation) {
+                return cells;
+            }
+            offset += RECORD_HEADER_SIZE + compressedLength;
+        }
+        throw new IllegalArgumentException("Error: Generation " + generation + " was not recorded");
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Load the keyframe index from the trailer, or scan the records if there is none
+    private long readIndex() throws IOException {
+        long size = channel.size();
+        if (size >= HEADER_SIZE + TRAILER_SIZE) {
+            ByteBuffer trailer = readFully(size - TRAILER_SIZE, TRAILER_SIZE);
+            long indexOffset = trailer.getLong();
+            if (trailer.getLong() == INDEX_MAGIC && indexOffset >= HEADER_SIZE && indexOffset < size) {
+                ByteBuffer index = readFully(indexOffset, (int) (size - TRAILER_SIZE - indexOffset));
+                firstGeneration = index.getLong();
+                lastGeneration = index.getLong();
+                int keyframes = index.getInt();
+                for (int i = 0; i < keyframes; i++) {
+                    keyframeOffsets.put(index.getLong(), index.getLong());
+                }
+                return indexOffset;
+            }
+        }
+        long offset = HEADER_SIZE;
+        while (offset + RECORD_HEADER_SIZE <= size) {
+            ByteBuffer recordHeader = readFully(offset, RECORD_HEADER_SIZE);
+            byte type = recordHeader.get();
+            long generation = recordHeader.getLong();
+            recordHeader.getInt();
+            int compressedLength = recordHeader.getInt();
+            if (offset + RECORD_HEADER_SIZE + compressedLength > size) {
+                break; // A record cut short by a crash is ignored
+            }
+            if (type == KEYFRAME) {
+                keyframeOffsets.put(generation, offset);
+            }
+            if (firstGeneration < 0) {
+                firstGeneration = generation;
+            }
+            lastGeneration = generation;
+            offset += RECORD_HEADER_SIZE + compressedLength;
+        }
+        return offset;
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of history file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static ByteBuffer inflate(ByteBuffer compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int inflated = 0;
+            while (inflated < rawLength && !inflater.finished()) {
+                int read = inflater.inflate(raw, inflated, rawLength - inflated);
+                if (read == 0 && inflater.needsInput()) {
+                    break;
+                }
+                inflated += read;
+            }
+            if (inflated != rawLength) {
+                throw new IOException("Corrupt history record");
+            }
+            return ByteBuffer.wrap(raw);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt history record", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Append a list of cells, sorted in storage order, as a count followed by
+     * zigzag varint deltas between consecutive cells
+     */
+    static void encodeCells(List<Cell> cells, VarintBuffer out) {
+        out.writeVarint(cells.size());
+        long previousX = 0, previousY = 0;
+        for (Cell cell : cells) {
+            out.writeVarint(zigzag(cell.y() - previousY));
+            out.writeVarint(zigzag(cell.x() - previousX));
+            previousX = cell.x();
+            previousY = cell.y();
+        }
+    }
+
+    static List<Cell> decodeCells(ByteBuffer in) {
+        int count = (int) readVarint(in);
+        List<Cell> cells = new ArrayList<>(count);
+        long x = 0, y = 0;
+        for (int i = 0; i < count; i++) {
+            y += unzigzag(readVarint(in));
+            x += unzigzag(readVarint(in));
+            cells.add(new Cell(x, y));
+        }
+        return cells;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0;; shift += 7) {
+            byte next = in.get();
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Growable byte array for building record payloads
+     */
+    static class VarintBuffer {
+        byte[] bytes = new byte[256];
+        int size;
+
+        void writeVarint(long value) {
+            if (size + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
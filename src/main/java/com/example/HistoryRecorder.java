@@ -0,0 +1,238 @@
+package com.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * Records the generations of a run to a single append only file that
+ * {@link HistoryArchive} can load any generation from. A keyframe holding every
+ * living cell is written every few generations, and the generations in between
+ * only store the cells born and the cells that died, so the file is a small
+ * fraction of the size of the full generations.
+ *
+ * Register the recorder with {@link GameConfig#addListener} to record a run, and
+ * close it once the run is finished to write the seek index. Finding the
+ * births and deaths of a delta means looking every cell of both generations up
+ * in the other, about two hash lookups per cell on top of the dozens a
+ * {@link GameOfLife} step makes. Given the {@link GenerationStats} of the
+ * engine, the recorder takes the births and deaths the step already found
+ * instead, so recording costs follow the cells that changed.
+ */
+public class HistoryRecorder implements GenerationListener, AutoCloseable {
+    /** Keyframe interval used when no other is given */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 64;
+
+    private final DataOutputStream out;
+    private final int keyframeInterval;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final HistoryArchive.VarintBuffer payload = new HistoryArchive.VarintBuffer();
+    private final Map<Long, Long> keyframeOffsets = new LinkedHashMap<>();
+    private final GenerationStats stats;
+    private byte[] compressed = new byte[256];
+    private long position;
+    private Set<Cell> previous;
+    private long firstGeneration = -1;
+    private long lastGeneration = -1;
+    private long lastKeyframe;
+    private long lastStep = -1;
+    private boolean closed;
+
+    /**
+     * Create a recorder that writes keyframes at the default interval
+     *
+     * @param path - The file to record to, replacing any existing contents
+     * @throws IOException
+     */
+    public HistoryRecorder(Path path) throws IOException {
+        this(path, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Create a recorder
+     *
+     * @param path             - The file to record to, replacing any existing
+     *                         contents
+     * @param keyframeInterval - The most deltas replayed to load any generation
+     *                         is one less than this
+     * @throws IOException
+     */
+    public HistoryRecorder(Path path, int keyframeInterval) throws IOException {
+        this(path, keyframeInterval, null);
+    }
+
+    /**
+     * Create a recorder that takes the births and deaths of each step from the
+     * stats of the engine producing the generations
+     *
+     * @param path             - The file to record to, replacing any existing
+     *                         contents
+     * @param keyframeInterval - The most deltas replayed to load any generation
+     *                         is one less than this
+     * @param stats            - The stats of the engine whose generations are
+     *                         recorded, or null to compare generations instead
+     * @throws IOException
+     */
+    public HistoryRecorder(Path path, int keyframeInterval, GenerationStats stats) throws IOException {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("Error: Keyframe interval must be greater than zero");
+        }
+        this.keyframeInterval = keyframeInterval;
+        this.stats = stats;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        out.writeLong(HistoryArchive.MAGIC);
+        out.writeInt(HistoryArchive.VERSION);
+        out.writeInt(keyframeInterval);
+        position = HistoryArchive.HEADER_SIZE;
+    }
+
+    /**
+     * Record a generation, generations must be recorded in increasing order
+     *
+     * @param generation - The index of the generation
+     * @param cells      - The living cells of the generation, which must not be
+     *                   modified afterwards
+     */
+    @Override
+    public void onGeneration(long generation, Set<Cell> cells) {
+        try {
+            record(generation, cells);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Record a generation, generations must be recorded in increasing order
+     *
+     * @param generation - The index of the generation
+     * @param cells      - The living cells of the generation, which must not be
+     *                   modified afterwards
+     * @throws IOException
+     */
+    public void record(long generation, Set<Cell> cells) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Error: Recorder has already been closed");
+        }
+        if (lastGeneration >= 0 && generation <= lastGeneration) {
+            throw new IllegalArgumentException("Error: Generations must be recorded in increasing order");
+        }
+
+        payload.clear();
+        byte type;
+        // Deltas only chain consecutive generations, a gap always starts a new keyframe
+        if (previous == null || generation != lastGeneration + 1 || generation - lastKeyframe >= keyframeInterval) {
+            type = HistoryArchive.KEYFRAME;
+            HistoryArchive.encodeCells(sorted(cells), payload);
+            keyframeOffsets.put(generation, position);
+            lastKeyframe = generation;
+        } else {
+            type = HistoryArchive.DELTA;
+            List<Cell> births;
+            List<Cell> deaths;
+            // The stats only hold this delta if exactly one step was taken since the previous generation
+            if (stats != null && stats.getSteps() == lastStep + 1 && stats.getPopulation() == cells.size()) {
+                births = new ArrayList<>(stats.getLastBirths());
+                deaths = new ArrayList<>(stats.getLastDeaths());
+            } else {
+                births = new ArrayList<>();
+                deaths = new ArrayList<>();
+                for (Cell cell : cells) {
+                    if (!previous.contains(cell)) {
+                        births.add(cell);
+                    }
+                }
+                for (Cell cell : previous) {
+                    if (!cells.contains(cell)) {
+                        deaths.add(cell);
+                    }
+                }
+            }
+            births.sort(LifeHelpers.ROW_ORDER);
+            deaths.sort(LifeHelpers.ROW_ORDER);
+            HistoryArchive.encodeCells(births, payload);
+            HistoryArchive.encodeCells(deaths, payload);
+        }
+        writeRecord(type, generation);
+
+        previous = cells;
+        if (stats != null) {
+            lastStep = stats.getSteps();
+        }
+        if (firstGeneration < 0) {
+            firstGeneration = generation;
+        }
+        lastGeneration = generation;
+    }
+
+    /**
+     * @return - The number of bytes written so far
+     */
+    public long getBytesWritten() {
+        return position;
+    }
+
+    /**
+     * Write the seek index and close the file
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            long indexOffset = position;
+            out.writeLong(firstGeneration);
+            out.writeLong(lastGeneration);
+            out.writeInt(keyframeOffsets.size());
+            for (Map.Entry<Long, Long> keyframe : keyframeOffsets.entrySet()) {
+                out.writeLong(keyframe.getKey());
+                out.writeLong(keyframe.getValue());
+            }
+            out.writeLong(indexOffset);
+            out.writeLong(HistoryArchive.INDEX_MAGIC);
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private void writeRecord(byte type, long generation) throws IOException {
+        deflater.reset();
+        deflater.setInput(payload.bytes, 0, payload.size);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+
+        out.writeByte(type);
+        out.writeLong(generation);
+        out.writeInt(payload.size);
+        out.writeInt(compressedLength);
+        out.write(compressed, 0, compressedLength);
+        position += HistoryArchive.RECORD_HEADER_SIZE + compressedLength;
+    }
+
+    private static List<Cell> sorted(Set<Cell> cells) {
+        List<Cell> sorted = new ArrayList<>(cells);
+        sorted.sort(LifeHelpers.ROW_ORDER);
+        return sorted;
+    }
+}
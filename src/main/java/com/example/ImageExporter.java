@@ -0,0 +1,230 @@
+package com.example;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Renders generations to grayscale PNG images of a fixed pixel size. Living
+ * cells are binned into pixels in a single pass over the population, so the
+ * cost depends on the number of living cells rather than the area they are
+ * spread over. When a pixel covers several cells it is shaded by the share of
+ * them that are alive, and when a cell covers several pixels it is drawn as a
+ * solid square. Like {@link LifeHelpers#printGenerationGrid}, the highest row
+ * is drawn at the top.
+ */
+public class ImageExporter {
+    private static final int BACKGROUND = 255;
+
+    private final int width;
+    private final int height;
+    private final int threads;
+
+    /**
+     * Create an exporter rendering frames on one thread per available processor
+     *
+     * @param width  - Width of the images in pixels
+     * @param height - Height of the images in pixels
+     */
+    public ImageExporter(int width, int height) {
+        this(width, height, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create an exporter
+     *
+     * @param width   - Width of the images in pixels
+     * @param height  - Height of the images in pixels
+     * @param threads - How many frames of a sequence are rendered at once
+     */
+    public ImageExporter(int width, int height, int threads) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Error: Image size must be greater than zero");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Error: Number of threads must be greater than zero");
+        }
+        this.width = width;
+        this.height = height;
+        this.threads = threads;
+    }
+
+    /**
+     * Render the cells of a generation, fitting its bounding box into the image
+     *
+     * @param cells - The living cells to render
+     * @return - The rendered image
+     */
+    public BufferedImage render(Set<Cell> cells) {
+        return render(cells, BoundingBox.of(cells));
+    }
+
+    /**
+     * Render the part of a generation inside a viewport, cells outside of it are
+     * skipped
+     *
+     * @param cells    - The living cells to render
+     * @param viewport - The region of the board to fit into the image, or null for
+     *                 an empty image
+     * @return - The rendered image
+     */
+    public BufferedImage render(Set<Cell> cells, BoundingBox viewport) {
+        return render((Iterable<Cell>) cells, viewport);
+    }
+
+    /**
+     * Render the part of an indexed generation inside a viewport. Only the cells
+     * inside the viewport are visited, which makes panning and zooming over a
+     * large population cheap.
+     *
+     * @param index    - The living cells to render
+     * @param viewport - The region of the board to fit into the image
+     * @return - The rendered image
+     */
+    public BufferedImage render(SpatialIndex index, BoundingBox viewport) {
+        return render(viewport == null ? List.of() : index.query(viewport), viewport);
+    }
+
+    private BufferedImage render(Iterable<Cell> cells, BoundingBox viewport) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, (byte) BACKGROUND);
+        if (viewport == null) {
+            return image;
+        }
+
+        // Spans are unsigned so viewports wider than Long.MAX_VALUE still work
+        long spanX = viewport.maxX() - viewport.minX();
+        long spanY = viewport.maxY() - viewport.minY();
+        long cellsPerPixel = Math.max(cellsPerPixel(spanX, width), cellsPerPixel(spanY, height));
+
+        if (cellsPerPixel == 1) {
+            drawZoomedIn(cells, viewport, spanX, spanY, pixels);
+        } else {
+            drawBinned(cells, viewport, cellsPerPixel, pixels);
+        }
+        return image;
+    }
+
+    /**
+     * Render a generation and write it as a PNG file
+     *
+     * @param cells    - The living cells to render
+     * @param viewport - The region of the board to fit into the image
+     * @param file     - The PNG file to write
+     * @throws IOException
+     */
+    public void export(Set<Cell> cells, BoundingBox viewport, Path file) throws IOException {
+        if (!ImageIO.write(render(cells, viewport), "png", file.toFile())) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+
+    /**
+     * Render a sequence of generations on worker threads and write them as
+     * numbered PNG files. Every frame uses the same viewport so they line up.
+     *
+     * @param frames    - The generations to render, in order
+     * @param viewport  - The region of the board to fit into the images, or null
+     *                  for the bounding box of every frame together
+     * @param directory - The directory the frames are written to
+     * @return - The files written, in frame order
+     * @throws IOException
+     */
+    public List<Path> exportSequence(List<Set<Cell>> frames, BoundingBox viewport, Path directory)
+            throws IOException {
+        BoundingBox frameViewport = viewport;
+        if (frameViewport == null) {
+            for (Set<Cell> frame : frames) {
+                frameViewport = BoundingBox.union(frameViewport, BoundingBox.of(frame));
+            }
+        }
+        Files.createDirectories(directory);
+
+        BoundingBox sharedViewport = frameViewport;
+        List<Path> files = new ArrayList<>();
+        List<Future<?>> renders = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int index = 0; index < frames.size(); index++) {
+                Set<Cell> frame = frames.get(index);
+                Path file = directory.resolve(String.format("frame-%06d.png", index));
+                files.add(file);
+                renders.add(executor.submit(() -> {
+                    export(frame, sharedViewport, file);
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> render : renders) {
+            try {
+                render.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while exporting frames", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IOException("Failed to export frame", e.getCause());
+            }
+        }
+        return files;
+    }
+
+    // Each cell covers one or more whole pixels
+    private void drawZoomedIn(Iterable<Cell> cells, BoundingBox viewport, long spanX, long spanY, byte[] pixels) {
+        int pixelsPerCell = (int) Math.min(width / (spanX + 1), height / (spanY + 1));
+        pixelsPerCell = Math.max(1, pixelsPerCell);
+        for (Cell cell : cells) {
+            if (!viewport.contains(cell)) {
+                continue;
+            }
+            int left = (int) (cell.x() - viewport.minX()) * pixelsPerCell;
+            int top = (int) (viewport.maxY() - cell.y()) * pixelsPerCell;
+            for (int row = top; row < top + pixelsPerCell; row++) {
+                Arrays.fill(pixels, row * width + left, row * width + left + pixelsPerCell, (byte) 0);
+            }
+        }
+    }
+
+    // Several cells share each pixel, which is shaded by how many of them are alive
+    private void drawBinned(Iterable<Cell> cells, BoundingBox viewport, long cellsPerPixel, byte[] pixels) {
+        int[] counts = new int[width * height];
+        for (Cell cell : cells) {
+            if (!viewport.contains(cell)) {
+                continue;
+            }
+            long column = Math.min(width - 1, Long.divideUnsigned(cell.x() - viewport.minX(), cellsPerPixel));
+            long row = Math.min(height - 1, Long.divideUnsigned(viewport.maxY() - cell.y(), cellsPerPixel));
+            counts[(int) (row * width + column)]++;
+        }
+        double cellsInPixel = (double) cellsPerPixel * cellsPerPixel;
+        for (int pixel = 0; pixel < counts.length; pixel++) {
+            if (counts[pixel] > 0) {
+                double density = Math.min(1.0, counts[pixel] / cellsInPixel);
+                // Any living cell leaves a visible mark, a full pixel is black
+                int shade = (int) Math.round((BACKGROUND - 1) * (1 - density));
+                pixels[pixel] = (byte) Math.min(BACKGROUND - 1, shade);
+            }
+        }
+    }
+
+    // The number of cells per pixel needed to fit span + 1 cells into the given pixels
+    private static long cellsPerPixel(long span, int pixels) {
+        long quotient = Long.divideUnsigned(span, pixels);
+        long cellsPerPixel = quotient + 1; // ceil((span + 1) / pixels) without overflowing span + 1
+        return cellsPerPixel == 0 ? Long.MAX_VALUE : cellsPerPixel; // The whole board into a single pixel
+    }
+}
@@ -0,0 +1,309 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An engine whose cost per generation follows the number of cells that change
+ * rather than the population. It keeps the living neighbour count of every cell
+ * next to a living cell between steps, and a step only looks at the cells
+ * around the births and deaths of the step before, since nothing else can
+ * change. The counts are then patched from the new births and deaths.
+ *
+ * The counts are only carried over when stepping from the set this engine last
+ * returned, anything else is counted from scratch. Each returned set has to
+ * stay unchanged, so {@link #getNextGeneration} still copies the previous
+ * generation before patching it. {@link #advance} copies once and then patches
+ * that set in place, so a long run costs the cells that change in each
+ * generation. It still computes every generation, so the engine does not report
+ * itself as macro stepping and {@link Simulation} keeps looking for cycles to
+ * skip. Results are the same as {@link GameOfLife}, including the board ending
+ * at the limits of a long.
+ */
+public class IncrementalEngine implements LifeEngine {
+    private final CellTable table = new CellTable();
+    // The cells that changed in the latest step, whose neighbourhoods are evaluated next
+    private Coordinates changed = new Coordinates();
+    private Set<Cell> lastGeneration;
+
+    @Override
+    public Set<Cell> getNextGeneration(Set<Cell> aliveCells) {
+        return advance(aliveCells, 1);
+    }
+
+    @Override
+    public Set<Cell> advance(Set<Cell> aliveCells, long steps) {
+        if (steps == 0) {
+            return aliveCells;
+        }
+        if (aliveCells != lastGeneration) {
+            load(aliveCells);
+        }
+        Set<Cell> result = new HashSet<>(aliveCells);
+        Coordinates births = new Coordinates();
+        Coordinates deaths = new Coordinates();
+        for (long step = 0; step < steps; step++) {
+            step(births, deaths);
+            for (int i = 0; i < deaths.size; i++) {
+                result.remove(new Cell(deaths.xs[i], deaths.ys[i]));
+            }
+            for (int i = 0; i < births.size; i++) {
+                result.add(new Cell(births.xs[i], births.ys[i]));
+            }
+        }
+        lastGeneration = result;
+        return result;
+    }
+
+    private void load(Set<Cell> cells) {
+        table.clear();
+        changed = new Coordinates();
+        for (Cell cell : cells) {
+            setAlive(cell.x(), cell.y(), true);
+            changed.add(cell.x(), cell.y()); // Every cell is evaluated in the first step
+        }
+    }
+
+    // Find the births and deaths around the latest changes, then apply them to the counts
+    private void step(Coordinates births, Coordinates deaths) {
+        births.clear();
+        deaths.clear();
+        int epoch = table.nextEpoch();
+        for (int i = 0; i < changed.size; i++) {
+            long x = changed.xs[i], y = changed.ys[i];
+            for (long dy = -1; dy <= 1; dy++) {
+                for (long dx = -1; dx <= 1; dx++) {
+                    if (!onBoard(x, dx) || !onBoard(y, dy)) {
+                        continue;
+                    }
+                    long cellX = x + dx, cellY = y + dy;
+                    int slot = table.find(cellX, cellY);
+                    // Cells with no living neighbours are not in the table and cannot be born
+                    if (slot < 0 || !table.visit(slot, epoch)) {
+                        continue;
+                    }
+                    int neighbours = table.neighbours(slot);
+                    if (table.isAlive(slot)) {
+                        if (neighbours != 2 && neighbours != 3) {
+                            deaths.add(cellX, cellY);
+                        }
+                    } else if (neighbours == 3) {
+                        births.add(cellX, cellY);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < deaths.size; i++) {
+            setAlive(deaths.xs[i], deaths.ys[i], false);
+        }
+        for (int i = 0; i < births.size; i++) {
+            setAlive(births.xs[i], births.ys[i], true);
+        }
+        changed.clear();
+        changed.addAll(births);
+        changed.addAll(deaths);
+    }
+
+    // Bring a cell to life or kill it, updating the counts of its neighbours
+    private void setAlive(long x, long y, boolean alive) {
+        int delta = alive ? 1 : -1;
+        table.setAlive(x, y, alive);
+        for (long dy = -1; dy <= 1; dy++) {
+            for (long dx = -1; dx <= 1; dx++) {
+                if ((dx != 0 || dy != 0) && onBoard(x, dx) && onBoard(y, dy)) {
+                    table.addNeighbours(x + dx, y + dy, delta);
+                }
+            }
+        }
+    }
+
+    // Neighbours past the limits of a long do not exist, matching GameOfLife.getNeighbors
+    private static boolean onBoard(long coordinate, long delta) {
+        return !(delta > 0 && coordinate == Long.MAX_VALUE) && !(delta < 0 && coordinate == Long.MIN_VALUE);
+    }
+
+    /**
+     * A growable list of coordinates kept as two primitive arrays
+     */
+    private static class Coordinates {
+        long[] xs = new long[16];
+        long[] ys = new long[16];
+        int size;
+
+        void add(long x, long y) {
+            if (size == xs.length) {
+                xs = Arrays.copyOf(xs, size * 2);
+                ys = Arrays.copyOf(ys, size * 2);
+            }
+            xs[size] = x;
+            ys[size] = y;
+            size++;
+        }
+
+        void addAll(Coordinates other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.xs[i], other.ys[i]);
+            }
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Open addressing hash table from a cell to its living neighbour count and
+     * whether it is alive. Cells that are dead with no living neighbours are
+     * removed straight away, so the table only grows with the population.
+     */
+    private static class CellTable {
+        private static final int EMPTY = -1;
+        private static final int ALIVE = 16;
+        private static final int COUNT_MASK = 15;
+
+        private long[] xs;
+        private long[] ys;
+        // EMPTY, or the neighbour count with the ALIVE bit
+        private int[] states;
+        // The last step each cell was evaluated in, so each is evaluated once per step
+        private int[] visited;
+        private int mask;
+        private int size;
+        private int epoch;
+
+        CellTable() {
+            allocate(1 << 10);
+        }
+
+        void clear() {
+            allocate(1 << 10);
+        }
+
+        int nextEpoch() {
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(visited, 0);
+                epoch = 1;
+            }
+            return epoch;
+        }
+
+        int find(long x, long y) {
+            for (int slot = home(x, y);; slot = (slot + 1) & mask) {
+                if (states[slot] == EMPTY) {
+                    return -1;
+                }
+                if (xs[slot] == x && ys[slot] == y) {
+                    return slot;
+                }
+            }
+        }
+
+        // Mark a cell as evaluated in this step, false if it already was
+        boolean visit(int slot, int currentEpoch) {
+            if (visited[slot] == currentEpoch) {
+                return false;
+            }
+            visited[slot] = currentEpoch;
+            return true;
+        }
+
+        boolean isAlive(int slot) {
+            return (states[slot] & ALIVE) != 0;
+        }
+
+        int neighbours(int slot) {
+            return states[slot] & COUNT_MASK;
+        }
+
+        void setAlive(long x, long y, boolean alive) {
+            int slot = findOrInsert(x, y);
+            states[slot] = alive ? states[slot] | ALIVE : states[slot] & ~ALIVE;
+            removeIfUnused(slot);
+        }
+
+        void addNeighbours(long x, long y, int delta) {
+            int slot = findOrInsert(x, y);
+            states[slot] += delta;
+            removeIfUnused(slot);
+        }
+
+        private int findOrInsert(long x, long y) {
+            if ((size + 1) * 2 > states.length) {
+                grow();
+            }
+            int slot = home(x, y);
+            while (states[slot] != EMPTY) {
+                if (xs[slot] == x && ys[slot] == y) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            xs[slot] = x;
+            ys[slot] = y;
+            states[slot] = 0;
+            visited[slot] = 0;
+            size++;
+            return slot;
+        }
+
+        private void removeIfUnused(int slot) {
+            if (states[slot] != 0) {
+                return;
+            }
+            // Shift later entries of the probe chain back so lookups never stop at the gap
+            int gap = slot;
+            for (int next = (gap + 1) & mask; states[next] != EMPTY; next = (next + 1) & mask) {
+                int home = home(xs[next], ys[next]);
+                boolean movable = gap <= next ? (home <= gap || home > next) : (home <= gap && home > next);
+                if (movable) {
+                    xs[gap] = xs[next];
+                    ys[gap] = ys[next];
+                    states[gap] = states[next];
+                    visited[gap] = visited[next];
+                    gap = next;
+                }
+            }
+            states[gap] = EMPTY;
+            size--;
+        }
+
+        private void grow() {
+            long[] oldXs = xs, oldYs = ys;
+            int[] oldStates = states, oldVisited = visited;
+            allocate(oldStates.length * 2);
+            for (int old = 0; old < oldStates.length; old++) {
+                if (oldStates[old] != EMPTY) {
+                    int slot = home(oldXs[old], oldYs[old]);
+                    while (states[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    xs[slot] = oldXs[old];
+                    ys[slot] = oldYs[old];
+                    states[slot] = oldStates[old];
+                    visited[slot] = oldVisited[old];
+                    size++;
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            xs = new long[capacity];
+            ys = new long[capacity];
+            states = new int[capacity];
+            visited = new int[capacity];
+            Arrays.fill(states, EMPTY);
+            mask = capacity - 1;
+            size = 0;
+        }
+
+        private int home(long x, long y) {
+            long hash = x * 0x9E3779B97F4A7C15L + y;
+            hash ^= hash >>> 32;
+            hash *= 0xD6E8FEB86659FD93L;
+            hash ^= hash >>> 32;
+            return (int) hash & mask;
+        }
+    }
+}
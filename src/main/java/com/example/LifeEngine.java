@@ -0,0 +1,43 @@
+package com.example;
+
+import java.util.Set;
+
+/**
+ * An algorithm that applies the rules of the game of life to a generation of
+ * living cells. Engines never modify the sets they are given and hand back sets
+ * that they will not modify afterwards.
+ */
+public interface LifeEngine {
+
+    /**
+     * Run a set of living cells through one round of the rules of the game
+     *
+     * @param aliveCells - The most recent set of living cells for a generation
+     * @return - The set of living cells of the following generation
+     */
+    Set<Cell> getNextGeneration(Set<Cell> aliveCells);
+
+    /**
+     * Run a set of living cells through any number of rounds of the game. Engines
+     * that can take larger steps than one generation at a time override this.
+     *
+     * @param aliveCells - The most recent set of living cells for a generation
+     * @param steps      - How many generations to advance, zero or more
+     * @return - The set of living cells after the given number of generations
+     */
+    default Set<Cell> advance(Set<Cell> aliveCells, long steps) {
+        Set<Cell> resultingGeneration = aliveCells;
+        for (long step = 0; step < steps; step++) {
+            resultingGeneration = getNextGeneration(resultingGeneration);
+        }
+        return resultingGeneration;
+    }
+
+    /**
+     * @return - true if {@link #advance} is faster than stepping one generation at
+     *         a time, so callers should prefer it for long jumps
+     */
+    default boolean isMacroStepping() {
+        return false;
+    }
+}
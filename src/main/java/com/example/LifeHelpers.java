@@ -2,11 +2,16 @@ package com.example;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Scanner;
 import java.util.Set;
 
 public class LifeHelpers {
+    // Orders cells by row and then by column
+    static final Comparator<Cell> ROW_ORDER = Comparator.comparingLong(Cell::y).thenComparingLong(Cell::x);
+
     /**
      * A simple helper function to print a readable output of the cells in a
      * generation by their coordinates on a board
@@ -14,10 +19,20 @@ public class LifeHelpers {
      * @param cells - A tuple set of cells to be printed in the format ( x, y ) ...
      */
     public static void printGenerations(Set<Cell> cells) {
+        printGenerations(cells, System.out);
+    }
+
+    /**
+     * Prints the cells of a generation by their coordinates to the given stream
+     * 
+     * @param cells - A tuple set of cells to be printed in the format ( x, y ) ...
+     * @param out   - The stream the coordinates are written to
+     */
+    public static void printGenerations(Set<Cell> cells, PrintStream out) {
         for (Cell cell : cells) {
-            System.out.print("( " + cell.x() + " ," + cell.y() + " )");
+            out.print("( " + cell.x() + " ," + cell.y() + " )");
         }
-        System.out.println("\n\n");
+        out.println("\n\n");
     }
 
     /**
@@ -28,30 +43,49 @@ public class LifeHelpers {
      *              positions
      */
     public static void printGenerationGrid(Set<Cell> cells) {
+        printGenerationGrid(cells, System.out);
+    }
+
+    /**
+     * Prints a grid of cells in two dimensions to the given stream with X
+     * representing living cells
+     * 
+     * @param cells - A tuple set of cells used to create the board based on x and y
+     *              positions
+     * @param out   - The stream the grid is written to
+     */
+    public static void printGenerationGrid(Set<Cell> cells, PrintStream out) {
         if (cells.isEmpty()) {
             throw new IllegalArgumentException("Error: Provided set is empty");
         }
-        long minX = Long.MAX_VALUE, maxX = Long.MIN_VALUE;
-        long minY = Long.MAX_VALUE, maxY = Long.MIN_VALUE;
+        printGenerationGrid(cells, BoundingBox.of(cells), out);
+    }
 
-        for (Cell cell : cells) {
-            minX = Math.min(minX, cell.x());
-            maxX = Math.max(maxX, cell.x());
-            minY = Math.min(minY, cell.y());
-            maxY = Math.max(maxY, cell.y());
+    /**
+     * Prints a grid of cells in two dimensions to the given stream using an
+     * already known bounding box, avoiding a scan of the cells
+     * 
+     * @param cells - A tuple set of cells used to create the board based on x and y
+     *              positions
+     * @param box   - The bounding box of the cells
+     * @param out   - The stream the grid is written to
+     */
+    public static void printGenerationGrid(Set<Cell> cells, BoundingBox box, PrintStream out) {
+        if (cells.isEmpty() || box == null) {
+            throw new IllegalArgumentException("Error: Provided set is empty");
         }
         // Print grid
-        for (long y = maxY; y >= minY; y--) {
-            for (long x = minX; x <= maxX; x++) {
+        for (long y = box.maxY(); y >= box.minY(); y--) {
+            for (long x = box.minX(); x <= box.maxX(); x++) {
                 if (cells.contains(new Cell(x, y))) {
-                    System.out.print("X ");
+                    out.print("X ");
                 } else {
-                    System.out.print("- ");
+                    out.print("- ");
                 }
             }
-            System.out.println();
+            out.println();
         }
-        System.out.println("\n\n");
+        out.println("\n\n");
     }
 
     /**
@@ -187,4 +221,17 @@ public class LifeHelpers {
         }
     }
 
+    /**
+     * SplitMix64 finalizer, spreads the bits of a value so that nearby inputs give
+     * unrelated outputs
+     *
+     * @param value - The value to mix
+     * @return - The mixed value
+     */
+    static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
 }
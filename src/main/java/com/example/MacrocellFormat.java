@@ -0,0 +1,245 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reader and writer for Golly's Macrocell format. The pattern is stored as a
+ * quadtree whose leaves are 8x8 blocks of cells, and identical subtrees are
+ * written once and referred to by line number, so large regular patterns take
+ * a tiny fraction of the space of a list of cells.
+ *
+ * After a "[M2]" header and comment lines, every line is one node, numbered
+ * from 1 with 0 meaning an empty node. A leaf line gives the rows of its block
+ * from the top, with "." for a dead cell, "*" for a living one and "$" ending
+ * each row. Any other node is "level nw ne sw se", where a node of level k is
+ * 2^k cells wide. The last node is the root and is centered on the origin.
+ * Macrocell rows run downwards, so a cell at Macrocell row r is stored at
+ * y = -r.
+ */
+public class MacrocellFormat {
+    private static final int LEAF_LEVEL = 3;
+    private static final int LEAF_SIZE = 1 << LEAF_LEVEL;
+    // A root of this level covers every long coordinate
+    private static final int MAX_LEVEL = 64;
+    // Nodes are written top to bottom, left to right, so the same pattern always gives the same file
+    private static final Comparator<Cell> WRITE_ORDER = (a, b) -> a.y() != b.y()
+            ? Long.compareUnsigned(a.y(), b.y())
+            : Long.compareUnsigned(a.x(), b.x());
+
+    private MacrocellFormat() {
+    }
+
+    /**
+     * Read a Macrocell pattern
+     *
+     * @param reader - The pattern text
+     * @return - The living cells of the pattern
+     * @throws IOException
+     */
+    public static Set<Cell> read(Reader reader) throws IOException {
+        PatternIO.CharSource in = new PatternIO.CharSource(reader);
+        String header = in.readLine();
+        if (header == null || !header.startsWith("[M2]")) {
+            throw new IllegalArgumentException("Error: Invalid file format. Expected '[M2]' as first line.");
+        }
+
+        // Node 0 is the empty node, leaves keep their 64 cells as bits and have no children
+        List<long[]> nodes = new ArrayList<>();
+        List<Integer> levels = new ArrayList<>();
+        nodes.add(null);
+        levels.add(0);
+        for (int next = in.peek(); next >= 0; next = in.peek()) {
+            if (next == '#') {
+                String comment = in.readLine();
+                if (comment.startsWith("#R") && !comment.substring(2).strip().equalsIgnoreCase("B3/S23")) {
+                    throw new IllegalArgumentException("Error: Unsupported rule " + comment.substring(2).strip()
+                            + ", only B3/S23 is supported");
+                }
+            } else if (next == '.' || next == '*' || next == '$') {
+                nodes.add(new long[] { readLeaf(in) });
+                levels.add(LEAF_LEVEL);
+            } else if (next >= '0' && next <= '9') {
+                long level = in.readNumber();
+                if (level <= LEAF_LEVEL || level > MAX_LEVEL) {
+                    throw new IllegalArgumentException("Error: Unsupported Macrocell node level "
+                            + Long.toUnsignedString(level));
+                }
+                long[] children = new long[4];
+                for (int quadrant = 0; quadrant < 4; quadrant++) {
+                    skipSpaces(in);
+                    children[quadrant] = in.readNumber();
+                    if (children[quadrant] < 0 || children[quadrant] >= nodes.size()
+                            || (children[quadrant] != 0 && levels.get((int) children[quadrant]) != level - 1)) {
+                        throw new IllegalArgumentException("Error: Invalid Macrocell node on line " + nodes.size());
+                    }
+                }
+                in.readLine();
+                nodes.add(children);
+                levels.add((int) level);
+            } else {
+                in.readLine(); // Blank lines and anything unrecognised are skipped
+            }
+        }
+
+        Set<Cell> cells = new HashSet<>();
+        if (nodes.size() > 1) {
+            int root = nodes.size() - 1;
+            int level = levels.get(root);
+            long origin = level == MAX_LEVEL ? Long.MIN_VALUE : -(1L << (level - 1));
+            expand(nodes, levels, root, origin, origin, cells);
+        }
+        return cells;
+    }
+
+    /**
+     * Write a pattern as Macrocell
+     *
+     * @param cells  - The living cells to write
+     * @param writer - Where the pattern text is written
+     * @throws IOException
+     */
+    public static void write(Set<Cell> cells, Writer writer) throws IOException {
+        writer.write("[M2] (lifeJava)\n#R B3/S23\n");
+        if (cells.isEmpty()) {
+            return;
+        }
+        int level = rootLevel(cells);
+        long origin = level == MAX_LEVEL ? Long.MIN_VALUE : -(1L << (level - 1));
+
+        // Offsets from the top left corner of the root, unsigned so a full width root works
+        Map<Cell, Long> leaves = new HashMap<>();
+        for (Cell cell : cells) {
+            long column = cell.x() - origin;
+            long row = -cell.y() - origin;
+            Cell key = new Cell(column >>> LEAF_LEVEL, row >>> LEAF_LEVEL);
+            long bit = 1L << ((row & (LEAF_SIZE - 1)) * LEAF_SIZE + (column & (LEAF_SIZE - 1)));
+            leaves.merge(key, bit, (a, b) -> a | b);
+        }
+
+        // Identical subtrees share one line, so every distinct node is written once
+        Map<String, Integer> lineNumbers = new HashMap<>();
+        int[] lineCount = { 0 };
+        Map<Cell, Integer> current = new HashMap<>();
+        List<Map.Entry<Cell, Long>> orderedLeaves = new ArrayList<>(leaves.entrySet());
+        orderedLeaves.sort(Map.Entry.comparingByKey(WRITE_ORDER));
+        for (Map.Entry<Cell, Long> leaf : orderedLeaves) {
+            current.put(leaf.getKey(), line(leafLine(leaf.getValue()), lineNumbers, lineCount, writer));
+        }
+        // Build each level from the one below it until a single root is left
+        for (int nodeLevel = LEAF_LEVEL + 1; nodeLevel <= level; nodeLevel++) {
+            Map<Cell, int[]> parents = new HashMap<>();
+            for (Map.Entry<Cell, Integer> child : current.entrySet()) {
+                Cell key = child.getKey();
+                int quadrant = (int) ((key.x() & 1) + 2 * (key.y() & 1));
+                parents.computeIfAbsent(new Cell(key.x() >>> 1, key.y() >>> 1), k -> new int[4])[quadrant] =
+                        child.getValue();
+            }
+            List<Map.Entry<Cell, int[]>> ordered = new ArrayList<>(parents.entrySet());
+            ordered.sort(Map.Entry.comparingByKey(WRITE_ORDER));
+            Map<Cell, Integer> next = new HashMap<>();
+            for (Map.Entry<Cell, int[]> parent : ordered) {
+                int[] children = parent.getValue();
+                String node = nodeLevel + " " + children[0] + " " + children[1] + " " + children[2] + " "
+                        + children[3];
+                next.put(parent.getKey(), line(node, lineNumbers, lineCount, writer));
+            }
+            current = next;
+        }
+    }
+
+    // The number of the line holding a node, writing the node if it has not been written yet
+    private static int line(String node, Map<String, Integer> lineNumbers, int[] lineCount, Writer writer)
+            throws IOException {
+        Integer existing = lineNumbers.get(node);
+        if (existing != null) {
+            return existing;
+        }
+        writer.write(node);
+        writer.write('\n');
+        lineNumbers.put(node, ++lineCount[0]);
+        return lineCount[0];
+    }
+
+    // The smallest root level centered on the origin that covers every cell
+    private static int rootLevel(Set<Cell> cells) {
+        long reach = 0; // Largest of -coordinate - 1 and coordinate, every cell fits within -(reach + 1)..reach
+        for (Cell cell : cells) {
+            reach = Math.max(reach, Math.max(cell.x(), -1 - cell.x()));
+            long row = -cell.y(); // Long.MIN_VALUE stays negative, which only happens for the lowest cell
+            reach = Math.max(reach, cell.y() == Long.MIN_VALUE ? Long.MAX_VALUE : Math.max(row, -1 - row));
+        }
+        // A level k root spans -2^(k-1)..2^(k-1)-1
+        int level = Math.max(LEAF_LEVEL, 65 - Long.numberOfLeadingZeros(reach));
+        return Math.min(level, MAX_LEVEL);
+    }
+
+    private static String leafLine(long bits) {
+        StringBuilder line = new StringBuilder();
+        int lastRow = (63 - Long.numberOfLeadingZeros(bits)) / LEAF_SIZE;
+        for (int row = 0; row <= lastRow; row++) {
+            int rowBits = (int) (bits >>> (row * LEAF_SIZE)) & 0xFF;
+            for (int column = 0; rowBits >>> column != 0; column++) {
+                line.append((rowBits >>> column & 1) != 0 ? '*' : '.');
+            }
+            line.append('$');
+        }
+        return line.toString();
+    }
+
+    private static long readLeaf(PatternIO.CharSource in) throws IOException {
+        long bits = 0;
+        int row = 0, column = 0;
+        for (int next = in.read(); next >= 0 && next != '\n'; next = in.read()) {
+            if (next == '$') {
+                row++;
+                column = 0;
+            } else if (next == '.' || next == '*') {
+                if (row >= LEAF_SIZE || column >= LEAF_SIZE) {
+                    throw new IllegalArgumentException("Error: Macrocell leaf is larger than 8x8");
+                }
+                if (next == '*') {
+                    bits |= 1L << (row * LEAF_SIZE + column);
+                }
+                column++;
+            }
+        }
+        return bits;
+    }
+
+    private static void skipSpaces(PatternIO.CharSource in) throws IOException {
+        while (in.peek() == ' ' || in.peek() == '\t') {
+            in.read();
+        }
+    }
+
+    // Add the cells of a node whose top left corner is at the given column and row
+    private static void expand(List<long[]> nodes, List<Integer> levels, int node, long column, long row,
+            Set<Cell> cells) {
+        if (node == 0) {
+            return;
+        }
+        long[] contents = nodes.get(node);
+        int level = levels.get(node);
+        if (level == LEAF_LEVEL) {
+            for (long bits = contents[0]; bits != 0; bits &= bits - 1) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                cells.add(new Cell(column + (bit & (LEAF_SIZE - 1)), -(row + bit / LEAF_SIZE)));
+            }
+            return;
+        }
+        long half = 1L << (level - 1);
+        expand(nodes, levels, (int) contents[0], column, row, cells);
+        expand(nodes, levels, (int) contents[1], column + half, row, cells);
+        expand(nodes, levels, (int) contents[2], column, row + half, cells);
+        expand(nodes, levels, (int) contents[3], column + half, row + half, cells);
+    }
+}
@@ -0,0 +1,527 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Splits a generation into its separate objects and counts them by kind, the
+ * way the debris left by a settled soup is classified. Cells within two cells
+ * of each other on both axes belong to the same object. They are joined with a
+ * lock free union find, where every row of cells is linked to the rows just
+ * below it in parallel, so a field of millions of cells is split up on every
+ * core without any locking.
+ *
+ * Each object is named by the code soup searches use: "xs" and the population
+ * for still lifes, "xp" and the period for oscillators and "xq" and the period
+ * for spaceships, then an underscore and the extended Wechsler encoding of the
+ * object in whichever orientation and phase gives the shortest encoding, with
+ * ties going to the first in alphabetical order. A block is "xs4_33", a blinker
+ * "xp2_7" and a glider "xq4_153". Objects that die out or do not repeat within
+ * {@link #MAX_PERIOD} generations are counted as "xx_" and their population,
+ * and objects too big to classify as "ov_" and their population.
+ *
+ * Finding the orientation and phase of an object means running it through a
+ * period, so the result for every orientation and phase is cached, and the
+ * common objects are in the cache before the first census. Close the census
+ * once it is no longer needed to stop its worker threads.
+ */
+public class ObjectCensus implements AutoCloseable {
+    /** Longest period looked for when classifying an object */
+    public static final int MAX_PERIOD = 64;
+    /** Objects with more cells than this, or wider or taller, are not classified */
+    public static final int MAX_OBJECT_SIZE = 1024;
+
+    // Cells within this many cells of each other on both axes belong to the same object
+    static final int RADIUS = 2;
+    // Encoded objects kept in the cache, beyond this new ones are classified every time
+    private static final int MAX_CACHED = 1 << 16;
+    private static final String COLUMN_DIGITS = "0123456789abcdefghijklmnopqrstuv";
+    private static final String GAP_DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    // Rows from the top with "O" for a living cell, after the name of the object
+    private static final String[][] KNOWN_OBJECTS = {
+            { "block", "OO", "OO" },
+            { "beehive", ".OO.", "O..O", ".OO." },
+            { "loaf", ".OO.", "O..O", ".O.O", "..O." },
+            { "boat", "OO.", "O.O", ".O." },
+            { "ship", "OO.", "O.O", ".OO" },
+            { "tub", ".O.", "O.O", ".O." },
+            { "pond", ".OO.", "O..O", "O..O", ".OO." },
+            { "long boat", "OO..", "O.O.", ".O.O", "..O." },
+            { "barge", ".O..", "O.O.", ".O.O", "..O." },
+            { "mango", ".OO..", "O..O.", ".O..O", "..OO." },
+            { "aircraft carrier", "OO..", "O..O", "..OO" },
+            { "snake", "OO.O", "O.OO" },
+            { "blinker", "OOO" },
+            { "toad", ".OOO", "OOO." },
+            { "beacon", "OO..", "OO..", "..OO", "..OO" },
+            { "glider", ".O.", "..O", "OOO" },
+            { "lightweight spaceship", ".O..O", "O....", "O...O", "OOOO." },
+    };
+    // The code of every orientation and phase classified so far, mapped to the code of the object
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, String> NAMES = new HashMap<>();
+
+    static {
+        for (String[] object : KNOWN_OBJECTS) {
+            Set<Cell> cells = new HashSet<>();
+            for (int row = 1; row < object.length; row++) {
+                for (int column = 0; column < object[row].length(); column++) {
+                    if (object[row].charAt(column) == 'O') {
+                        cells.add(new Cell(column, -row));
+                    }
+                }
+            }
+            NAMES.put(classify(cells), object[0]);
+        }
+    }
+
+    /**
+     * The objects counted in a generation
+     */
+    public static class Census {
+        private final Map<String, Long> counts;
+        private final long objects;
+        private final long cells;
+        private final long elapsedNanos;
+
+        Census(Map<String, Long> counts, long objects, long cells, long elapsedNanos) {
+            this.counts = counts;
+            this.objects = objects;
+            this.cells = cells;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return - How many of each object were found keyed by their code, most
+         *         common first
+         */
+        public Map<String, Long> getCounts() {
+            return new LinkedHashMap<>(counts);
+        }
+
+        /**
+         * @param code - The code of an object, such as "xs4_33"
+         * @return - How many of the object were found
+         */
+        public long getCount(String code) {
+            return counts.getOrDefault(code, 0L);
+        }
+
+        /**
+         * @return - The number of objects found
+         */
+        public long getObjects() {
+            return objects;
+        }
+
+        /**
+         * @return - The number of living cells in the generation
+         */
+        public long getCells() {
+            return cells;
+        }
+
+        /**
+         * @return - How long the census took in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "%d objects in %d cells", objects,
+                    cells));
+            counts.forEach((code, count) -> {
+                text.append("\n").append(count).append(" ").append(code);
+                String name = nameOf(code);
+                if (name != null) {
+                    text.append(" (").append(name).append(")");
+                }
+            });
+            return text.toString();
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a census that uses every available processor
+     */
+    public ObjectCensus() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a census
+     *
+     * @param threads - How many threads split up and classify the objects
+     */
+    public ObjectCensus(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Error: Number of threads must be greater than zero");
+        }
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Stop the worker threads of the census, a running census finishes first
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Split a generation into objects and count each kind
+     *
+     * @param aliveCells - The living cells of the generation
+     * @return - The objects found
+     */
+    public Census take(Set<Cell> aliveCells) {
+        long start = System.nanoTime();
+        Cell[] cells = aliveCells.toArray(new Cell[0]);
+        int size = cells.length;
+        pool.submit(() -> Arrays.parallelSort(cells, LifeHelpers.ROW_ORDER)).join();
+
+        // Where each row of cells starts, with the end of the last row at the end
+        int[] rowStarts = new int[size + 1];
+        int rows = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || cells[i].y() != cells[i - 1].y()) {
+                rowStarts[rows++] = i;
+            }
+        }
+        rowStarts[rows] = size;
+        int rowCount = rows;
+
+        // Every cell starts as its own object, then each row joins the cells near it
+        AtomicIntegerArray parents = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parents.set(i, i);
+        }
+        pool.submit(() -> IntStream.range(0, rowCount).parallel()
+                .forEach(row -> linkRow(cells, rowStarts, rowCount, row, parents))).join();
+        int[] roots = new int[size];
+        pool.submit(() -> IntStream.range(0, size).parallel().forEach(i -> roots[i] = find(parents, i))).join();
+
+        // Gather the cells of each object together
+        int[] objectOf = new int[size];
+        int objects = 0;
+        for (int i = 0; i < size; i++) {
+            if (roots[i] == i) {
+                objectOf[i] = objects++;
+            }
+        }
+        int[] offsets = new int[objects + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[objectOf[roots[i]] + 1]++;
+        }
+        for (int object = 0; object < objects; object++) {
+            offsets[object + 1] += offsets[object];
+        }
+        int[] members = new int[size];
+        int[] filled = Arrays.copyOf(offsets, objects);
+        for (int i = 0; i < size; i++) {
+            members[filled[objectOf[roots[i]]]++] = i;
+        }
+
+        int objectCount = objects;
+        Map<String, Long> tally = pool.submit(() -> IntStream.range(0, objectCount).parallel()
+                .mapToObj(object -> classify(cells, members, offsets[object], offsets[object + 1]))
+                .collect(Collectors.groupingByConcurrent(Function.identity(), Collectors.counting()))).join();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        tally.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> counts.put(entry.getKey(), entry.getValue()));
+        return new Census(counts, objects, size, System.nanoTime() - start);
+    }
+
+    /**
+     * Find the code of a single object, such as "xs4_33" for a block
+     *
+     * @param object - The living cells of the object
+     * @return - The code of the object
+     */
+    public static String classify(Set<Cell> object) {
+        if (object.isEmpty()) {
+            return "xs0_0";
+        }
+        Cell[] cells = object.toArray(new Cell[0]);
+        int[] members = new int[cells.length];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = i;
+        }
+        return classify(cells, members, 0, members.length);
+    }
+
+    /**
+     * @param code - The code of an object
+     * @return - The common name of the object, or null if it has none
+     */
+    public static String nameOf(String code) {
+        return NAMES.get(code);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: java ObjectCensus <pattern file> [--threads n]");
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length >= 3 && args[1].equals("--threads")) {
+            threads = Integer.parseInt(args[2]);
+        }
+        try (ObjectCensus objectCensus = new ObjectCensus(threads)) {
+            Set<Cell> cells = PatternIO.read(Path.of(args[0]));
+            Census census = objectCensus.take(cells);
+            System.out.println(census);
+            System.out.printf(Locale.ROOT, "Took %.1f ms%n", census.getElapsedNanos() / 1e6);
+        } catch (IOException e) {
+            System.err.println("Error: Could not read file: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    // Join each cell of a row with the cells near it to its right and in the two rows below
+    private static void linkRow(Cell[] cells, int[] rowStarts, int rowCount, int row, AtomicIntegerArray parents) {
+        int start = rowStarts[row], end = rowStarts[row + 1];
+        for (int i = start; i < end; i++) {
+            for (int j = i + 1; j < end && near(cells[i].x(), cells[j].x()); j++) {
+                union(parents, i, j);
+            }
+        }
+        for (int below = row + 1; below < rowCount && below <= row + RADIUS; below++) {
+            int belowStart = rowStarts[below], belowEnd = rowStarts[below + 1];
+            if (!near(cells[start].y(), cells[belowStart].y())) {
+                break;
+            }
+            int first = belowStart; // The first cell of the row below that is not too far left
+            for (int i = start; i < end; i++) {
+                long x = cells[i].x();
+                while (first < belowEnd && cells[first].x() < x && !near(cells[first].x(), x)) {
+                    first++;
+                }
+                for (int j = first; j < belowEnd && (cells[j].x() <= x || near(x, cells[j].x())); j++) {
+                    union(parents, i, j);
+                }
+            }
+        }
+    }
+
+    // Whether a coordinate is no more than RADIUS past a smaller one, even across the edge of a long
+    private static boolean near(long smaller, long larger) {
+        return Long.compareUnsigned(larger - smaller, RADIUS) <= 0;
+    }
+
+    private static int find(AtomicIntegerArray parents, int cell) {
+        while (true) {
+            int parent = parents.get(cell);
+            if (parent == cell) {
+                return cell;
+            }
+            int grandparent = parents.get(parent);
+            if (grandparent != parent) {
+                parents.compareAndSet(cell, parent, grandparent); // Halve the path for the next find
+            }
+            cell = grandparent;
+        }
+    }
+
+    private static void union(AtomicIntegerArray parents, int a, int b) {
+        while (true) {
+            a = find(parents, a);
+            b = find(parents, b);
+            if (a == b) {
+                return;
+            }
+            // Roots only ever point to lower roots, so no thread can make a loop
+            if (a < b) {
+                int swap = a;
+                a = b;
+                b = swap;
+            }
+            if (parents.compareAndSet(a, a, b)) {
+                return;
+            }
+        }
+    }
+
+    private static String classify(Cell[] cells, int[] members, int from, int to) {
+        int population = to - from;
+        if (population > MAX_OBJECT_SIZE) {
+            return "ov_" + population;
+        }
+        long minX = cells[members[from]].x(), minY = cells[members[from]].y();
+        for (int i = from; i < to; i++) {
+            minX = Math.min(minX, cells[members[i]].x());
+            minY = Math.min(minY, cells[members[i]].y());
+        }
+        // Small offsets from the corner of the object, which stay in range for any position on the board
+        int[] xs = new int[population];
+        int[] ys = new int[population];
+        for (int i = 0; i < population; i++) {
+            long dx = cells[members[from + i]].x() - minX;
+            long dy = cells[members[from + i]].y() - minY;
+            if (Long.compareUnsigned(dx, MAX_OBJECT_SIZE) >= 0 || Long.compareUnsigned(dy, MAX_OBJECT_SIZE) >= 0) {
+                return "ov_" + population;
+            }
+            xs[i] = (int) dx;
+            ys[i] = (int) dy;
+        }
+        String cached = CACHE.get(encode(xs, ys, 0));
+        if (cached != null) {
+            return cached;
+        }
+        return canonicalize(xs, ys);
+    }
+
+    // Run an object through its period and pick the code of its best orientation and phase
+    private static String canonicalize(int[] xs, int[] ys) {
+        Set<Cell> phase = new HashSet<>();
+        for (int i = 0; i < xs.length; i++) {
+            phase.add(new Cell(xs[i], ys[i]));
+        }
+        GameOfLife game = new GameOfLife();
+        List<Set<Cell>> phases = new ArrayList<>();
+        phases.add(phase);
+        String first = encode(xs, ys, 0);
+        int period = 0;
+        boolean moved = false;
+        for (int step = 1; step <= MAX_PERIOD && period == 0; step++) {
+            phase = game.getNextGeneration(phase);
+            if (phase.isEmpty()) {
+                return "xx_" + xs.length;
+            }
+            BoundingBox box = BoundingBox.of(phase);
+            int[] phaseXs = new int[phase.size()];
+            int[] phaseYs = new int[phase.size()];
+            int i = 0;
+            for (Cell cell : phase) {
+                phaseXs[i] = (int) (cell.x() - box.minX());
+                phaseYs[i] = (int) (cell.y() - box.minY());
+                i++;
+            }
+            if (encode(phaseXs, phaseYs, 0).equals(first)) {
+                period = step;
+                moved = box.minX() != 0 || box.minY() != 0;
+            } else {
+                phases.add(phase);
+            }
+        }
+        if (period == 0) {
+            return "xx_" + xs.length;
+        }
+
+        List<String> seen = new ArrayList<>();
+        String best = null;
+        for (Set<Cell> each : phases) {
+            BoundingBox box = BoundingBox.of(each);
+            int[] phaseXs = new int[each.size()];
+            int[] phaseYs = new int[each.size()];
+            int i = 0;
+            for (Cell cell : each) {
+                phaseXs[i] = (int) (cell.x() - box.minX());
+                phaseYs[i] = (int) (cell.y() - box.minY());
+                i++;
+            }
+            for (int orientation = 0; orientation < 8; orientation++) {
+                String code = encode(phaseXs, phaseYs, orientation);
+                seen.add(code);
+                if (best == null || code.length() < best.length()
+                        || (code.length() == best.length() && code.compareTo(best) < 0)) {
+                    best = code;
+                }
+            }
+        }
+        String prefix = period == 1 ? "xs" + xs.length : (moved ? "xq" : "xp") + period;
+        String result = prefix + "_" + best;
+        if (CACHE.size() < MAX_CACHED) {
+            for (String code : seen) {
+                CACHE.put(code, result);
+            }
+        }
+        return result;
+    }
+
+    // The extended Wechsler encoding of cells at offsets from the corner, turned and flipped by the orientation
+    private static String encode(int[] xs, int[] ys, int orientation) {
+        int size = xs.length;
+        int[] columns = new int[size];
+        int[] rows = new int[size];
+        int width = 0, height = 0;
+        for (int i = 0; i < size; i++) {
+            int x = (orientation & 1) != 0 ? -xs[i] : xs[i];
+            int y = (orientation & 2) != 0 ? -ys[i] : ys[i];
+            columns[i] = (orientation & 4) != 0 ? y : x;
+            rows[i] = (orientation & 4) != 0 ? x : y;
+        }
+        int minColumn = Integer.MAX_VALUE, minRow = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            minColumn = Math.min(minColumn, columns[i]);
+            minRow = Math.min(minRow, rows[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            columns[i] -= minColumn;
+            rows[i] -= minRow;
+            width = Math.max(width, columns[i] + 1);
+            height = Math.max(height, rows[i] + 1);
+        }
+
+        // Rows are taken five at a time into strips, and each column of a strip is one digit
+        int strips = (height + 4) / 5;
+        int[] digits = new int[strips * width];
+        for (int i = 0; i < size; i++) {
+            digits[(rows[i] / 5) * width + columns[i]] |= 1 << (rows[i] % 5);
+        }
+        StringBuilder code = new StringBuilder();
+        for (int strip = 0; strip < strips; strip++) {
+            if (strip > 0) {
+                code.append('z');
+            }
+            int gap = 0;
+            for (int column = 0; column < width; column++) {
+                int digit = digits[strip * width + column];
+                if (digit == 0) {
+                    gap++;
+                    continue;
+                }
+                // Runs of empty columns are shortened, and ones at the end of a strip are left out
+                while (gap > 0) {
+                    if (gap == 1) {
+                        code.append('0');
+                        gap = 0;
+                    } else if (gap == 2) {
+                        code.append('w');
+                        gap = 0;
+                    } else if (gap == 3) {
+                        code.append('x');
+                        gap = 0;
+                    } else {
+                        int run = Math.min(gap, 4 + GAP_DIGITS.length() - 1);
+                        code.append('y').append(GAP_DIGITS.charAt(run - 4));
+                        gap -= run;
+                    }
+                }
+                code.append(COLUMN_DIGITS.charAt(digit));
+            }
+        }
+        return code.toString();
+    }
+}
@@ -0,0 +1,327 @@
+package com.example;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads #Life 1.06 files on several threads. The file is memory mapped and cut
+ * into byte ranges that end on a newline, each range is parsed into its own
+ * primitive coordinate buffer and then merged into a shared set of cells.
+ *
+ * Lines are accepted, skipped and reported exactly like
+ * {@link LifeHelpers#getCellsFromFile}, and invalid lines are reported in file
+ * order once parsing has finished.
+ */
+public class ParallelCellLoader {
+    private static final String HEADER = "#Life 1.06";
+    // Every line separator recognised by Scanner.nextLine
+    private static final String LINE_SEPARATORS = "\\r\\n|[\\n\\r\\u2028\\u2029\\u0085]";
+    // Files smaller than this are not worth splitting
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+    // Upper bound on the size of a single mapping
+    private static final long MAX_CHUNK_SIZE = 1 << 28;
+
+    private final int threads;
+
+    /**
+     * Create a loader using one thread per available processor
+     */
+    public ParallelCellLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a loader using the given number of threads
+     *
+     * @param threads - How many threads parse the file at once
+     */
+    public ParallelCellLoader(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Error: Number of threads must be greater than zero");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Read a #Life 1.06 file into a set of cells
+     *
+     * @param filePath - A filepath to a document containing cell coordinates
+     * @return - A thread safe set of the cells in the file, with duplicates removed
+     * @throws FileNotFoundException
+     * @throws IOException
+     */
+    public Set<Cell> load(String filePath) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r");
+                FileChannel channel = file.getChannel()) {
+            long size = channel.size();
+            long[] bounds = chunkBounds(channel, size);
+            int chunks = bounds.length - 1;
+
+            // Roughly one cell per eight bytes for typical coordinates, the set grows past the cap if needed
+            Set<Cell> cells = ConcurrentHashMap.newKeySet((int) Math.min(1 << 26, size / 8) + 16);
+            List<Future<List<String>>> results = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, chunks))) {
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    long start = bounds[chunk];
+                    long end = bounds[chunk + 1];
+                    boolean first = chunk == 0;
+                    results.add(executor.submit(() -> parseChunk(channel, start, end, first, cells)));
+                }
+            }
+
+            List<String> invalidLines = new ArrayList<>();
+            for (Future<List<String>> result : results) {
+                invalidLines.addAll(getResult(result));
+            }
+            for (String message : invalidLines) {
+                System.err.println(message);
+            }
+            return cells;
+        }
+    }
+
+    private static List<String> getResult(Future<List<String>> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading cells", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException invalid) {
+                throw invalid;
+            }
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to load cells", e.getCause());
+        }
+    }
+
+    // Split the file into ranges that each start at the beginning of a line
+    private long[] chunkBounds(FileChannel channel, long size) throws IOException {
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, (size + threads - 1) / threads);
+        chunkSize = Math.min(chunkSize, MAX_CHUNK_SIZE);
+        int chunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+
+        long[] bounds = new long[chunks + 1];
+        bounds[chunks] = size;
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            long position = Math.max(chunk * chunkSize, bounds[chunk - 1]);
+            bounds[chunk] = nextLineStart(channel, position, size, buffer);
+        }
+        return bounds;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer buffer)
+            throws IOException {
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static List<String> parseChunk(FileChannel channel, long start, long end, boolean first,
+            Set<Cell> cells) throws IOException {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Error: Line starting at byte " + start + " is too long");
+        }
+        MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int length = bytes.limit();
+        CoordinateBuffer coordinates = new CoordinateBuffer(length / 16 + 16);
+        List<String> invalidLines = new ArrayList<>();
+
+        int lineStart = 0;
+        if (first) {
+            int lineEnd = indexOf(bytes, (byte) '\n', 0, length);
+            String header = decode(bytes, 0, lineEnd);
+            if (!firstLine(header).trim().equals(HEADER)) {
+                throw new IllegalArgumentException("Invalid file format. Expected '#Life 1.06' as first line.");
+            }
+            String rest = header.substring(firstLine(header).length());
+            if (!rest.isEmpty()) {
+                parseSlow(rest.substring(separatorLength(rest)), coordinates, invalidLines);
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        while (lineStart < length) {
+            int lineEnd = indexOf(bytes, (byte) '\n', lineStart, length);
+            if (!parseFast(bytes, lineStart, lineEnd, coordinates)) {
+                parseSlow(decode(bytes, lineStart, lineEnd), coordinates, invalidLines);
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        // Merge this thread's coordinates into the shared set
+        long[] values = coordinates.values;
+        for (int i = 0; i < coordinates.size; i += 2) {
+            cells.add(new Cell(values[i], values[i + 1]));
+        }
+        return invalidLines;
+    }
+
+    /**
+     * Parse a line of plain ASCII coordinates without creating any strings
+     *
+     * @return - false if the line needs the full parser, either because it is
+     *         invalid or it contains anything unusual
+     */
+    private static boolean parseFast(ByteBuffer bytes, int start, int end, CoordinateBuffer coordinates) {
+        // Trim like String.trim, any non ASCII byte goes to the full parser
+        while (start < end && bytes.get(start) >= 0 && bytes.get(start) <= ' ') {
+            if (bytes.get(start) == '\r') {
+                return false;
+            }
+            start++;
+        }
+        while (end > start && bytes.get(end - 1) >= 0 && bytes.get(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end || bytes.get(start) == '#') {
+            return true; // Blank lines and comments are skipped
+        }
+
+        long[] parsed = new long[2];
+        int position = start;
+        for (int token = 0; token < 2; token++) {
+            if (token == 1) {
+                int separatorStart = position;
+                while (position < end && isSeparator(bytes.get(position))) {
+                    position++;
+                }
+                if (position == separatorStart) {
+                    return false;
+                }
+            }
+            int tokenEnd = parseLong(bytes, position, end, parsed, token);
+            if (tokenEnd < 0) {
+                return false;
+            }
+            position = tokenEnd;
+        }
+        if (position != end) {
+            return false;
+        }
+        coordinates.add(parsed[0], parsed[1]);
+        return true;
+    }
+
+    // Parse a decimal number the way Long.parseLong does, returning where it ended or -1
+    private static int parseLong(ByteBuffer bytes, int position, int end, long[] parsed, int index) {
+        boolean negative = false;
+        if (position < end && (bytes.get(position) == '-' || bytes.get(position) == '+')) {
+            negative = bytes.get(position) == '-';
+            position++;
+        }
+        int digitsStart = position;
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0; // Accumulated negatively so Long.MIN_VALUE fits
+        while (position < end && bytes.get(position) >= '0' && bytes.get(position) <= '9') {
+            int digit = bytes.get(position) - '0';
+            if (result < limit / 10 || result * 10 < limit + digit) {
+                return -1;
+            }
+            result = result * 10 - digit;
+            position++;
+        }
+        if (position == digitsStart || (position < end && !isSeparator(bytes.get(position)))) {
+            return -1;
+        }
+        parsed[index] = negative ? result : -result;
+        return position;
+    }
+
+    private static boolean isSeparator(byte value) {
+        return value == ' ' || value == '\t' || value == 0x0B || value == '\f';
+    }
+
+    // The same rules as LifeHelpers.getCellsFromFile, applied to each line of the text
+    private static void parseSlow(String text, CoordinateBuffer coordinates, List<String> invalidLines) {
+        for (String rawLine : text.split(LINE_SEPARATORS)) {
+            String line = rawLine.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length == 2) {
+                try {
+                    long x = Long.parseLong(parts[0]);
+                    long y = Long.parseLong(parts[1]);
+                    coordinates.add(x, y);
+                } catch (NumberFormatException e) {
+                    invalidLines.add("Invalid coordinates: " + line);
+                }
+            } else {
+                invalidLines.add("Ignoring invalid line: " + line);
+            }
+        }
+    }
+
+    private static String firstLine(String text) {
+        return text.split(LINE_SEPARATORS, 2)[0];
+    }
+
+    private static int separatorLength(String rest) {
+        return rest.startsWith("\r\n") ? 2 : 1;
+    }
+
+    private static int indexOf(ByteBuffer bytes, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes.get(i) == value) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static String decode(ByteBuffer bytes, int start, int end) {
+        byte[] line = new byte[end - start];
+        bytes.get(start, line);
+        return new String(line, Charset.defaultCharset());
+    }
+
+    /**
+     * Growable array of interleaved x and y coordinates
+     */
+    private static class CoordinateBuffer {
+        private long[] values;
+        private int size;
+
+        CoordinateBuffer(int capacity) {
+            values = new long[Math.max(2, capacity * 2)];
+        }
+
+        void add(long x, long y) {
+            if (size + 2 > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = x;
+            values[size++] = y;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The pattern file formats that can be read and written by {@link PatternIO}
+ */
+public enum PatternFormat {
+    /** One line of coordinates per living cell */
+    LIFE_106(".lif", ".life"),
+    /** Run length encoded rows, the format most pattern collections use */
+    RLE(".rle"),
+    /** Golly's quadtree format, where repeated regions are only stored once */
+    MACROCELL(".mc");
+
+    private final String[] extensions;
+
+    PatternFormat(String... extensions) {
+        this.extensions = extensions;
+    }
+
+    /**
+     * @param path - A pattern file
+     * @return - The format its extension stands for, or null if the extension is
+     *         not a pattern extension
+     */
+    public static PatternFormat fromExtension(Path path) {
+        Path fileName = path.getFileName();
+        if (fileName == null) {
+            return null;
+        }
+        String name = fileName.toString().toLowerCase(Locale.ROOT);
+        for (PatternFormat format : values()) {
+            for (String extension : format.extensions) {
+                if (name.endsWith(extension)) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recognise a format from the first bytes of a file
+     *
+     * @param head   - The start of the file
+     * @param length - How many bytes of head were read
+     * @return - The format of the file, or null if it is not recognised
+     */
+    public static PatternFormat sniff(byte[] head, int length) {
+        String start = new String(head, 0, length, StandardCharsets.ISO_8859_1).stripLeading();
+        if (start.startsWith("#Life 1.06")) {
+            return LIFE_106;
+        }
+        if (start.startsWith("[M2]")) {
+            return MACROCELL;
+        }
+        // RLE files open with comment lines and then a header line like "x = 3, y = 3"
+        for (String line : start.split("\\r\\n|[\\n\\r]")) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            return trimmed.matches("x\\s*=.*") ? RLE : null;
+        }
+        return null;
+    }
+}
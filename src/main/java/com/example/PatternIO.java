@@ -0,0 +1,205 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Reads and writes pattern files in any {@link PatternFormat}. The format of a
+ * file being read is taken from its extension, or from its first bytes when
+ * the extension is not a pattern extension, so plain .txt files work too.
+ */
+public class PatternIO {
+    // Enough of the start of a file to get past a few comment lines to the header
+    private static final int SNIFF_LENGTH = 4096;
+
+    private PatternIO() {
+    }
+
+    /**
+     * Read a pattern file in any supported format
+     *
+     * @param path - The file to read
+     * @return - The living cells of the pattern
+     * @throws IOException
+     */
+    public static Set<Cell> read(Path path) throws IOException {
+        PatternFormat format = detect(path);
+        if (format == null) {
+            throw new IllegalArgumentException("Error: Unrecognised pattern format: " + path);
+        }
+        return read(path, format);
+    }
+
+    /**
+     * Read a pattern file in the given format
+     *
+     * @param path   - The file to read
+     * @param format - The format of the file
+     * @return - The living cells of the pattern
+     * @throws IOException
+     */
+    public static Set<Cell> read(Path path, PatternFormat format) throws IOException {
+        if (format == PatternFormat.LIFE_106) {
+            return new ParallelCellLoader().load(path.toString());
+        }
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+            return format == PatternFormat.RLE ? RleFormat.read(reader) : MacrocellFormat.read(reader);
+        }
+    }
+
+    /**
+     * Write a pattern file in the format its extension stands for
+     *
+     * @param cells - The living cells to write
+     * @param path  - The file to write, replacing any existing contents
+     * @throws IOException
+     */
+    public static void write(Set<Cell> cells, Path path) throws IOException {
+        PatternFormat format = PatternFormat.fromExtension(path);
+        if (format == null) {
+            throw new IllegalArgumentException("Error: No pattern format uses the extension of " + path);
+        }
+        write(cells, path, format);
+    }
+
+    /**
+     * Write a pattern file in the given format
+     *
+     * @param cells  - The living cells to write
+     * @param path   - The file to write, replacing any existing contents
+     * @param format - The format to write
+     * @throws IOException
+     */
+    public static void write(Set<Cell> cells, Path path, PatternFormat format) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.ISO_8859_1)) {
+            switch (format) {
+                case LIFE_106 -> writeLife106(cells, writer);
+                case RLE -> RleFormat.write(cells, writer);
+                case MACROCELL -> MacrocellFormat.write(cells, writer);
+            }
+        }
+    }
+
+    /**
+     * @param path - A pattern file
+     * @return - Its format by extension, then by contents, or null if neither is
+     *         recognised
+     * @throws IOException
+     */
+    public static PatternFormat detect(Path path) throws IOException {
+        PatternFormat format = PatternFormat.fromExtension(path);
+        if (format != null) {
+            return format;
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] head = in.readNBytes(SNIFF_LENGTH);
+            return PatternFormat.sniff(head, head.length);
+        }
+    }
+
+    private static void writeLife106(Set<Cell> cells, Writer out) throws IOException {
+        out.write("#Life 1.06\n");
+        for (Cell cell : cells) {
+            out.write(Long.toString(cell.x()));
+            out.write(' ');
+            out.write(Long.toString(cell.y()));
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Buffered character input that hands out one character at a time without
+     * the locking of {@link java.io.BufferedReader#read()}
+     */
+    static class CharSource {
+        // The largest unsigned value that another digit can be appended to
+        private static final long MAX_BEFORE_DIGIT = Long.divideUnsigned(-1L, 10);
+        private static final long MAX_LAST_DIGIT = Long.remainderUnsigned(-1L, 10);
+
+        private final Reader in;
+        private final char[] buffer = new char[1 << 16];
+        private int position;
+        private int limit;
+
+        CharSource(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * @return - The next character, or -1 at the end of the input
+         */
+        int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++];
+        }
+
+        /**
+         * @return - The next character without consuming it, or -1 at the end
+         */
+        int peek() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        /**
+         * Read the rest of the current line, for the short header and comment lines
+         *
+         * @return - The line without its line separator, or null at the end
+         */
+        String readLine() throws IOException {
+            if (peek() < 0) {
+                return null;
+            }
+            StringBuilder line = new StringBuilder();
+            for (int next = read(); next >= 0 && next != '\n'; next = read()) {
+                if (next != '\r') {
+                    line.append((char) next);
+                }
+            }
+            return line.toString();
+        }
+
+        /**
+         * Read an unsigned decimal number starting at the next character, numbers
+         * past Long.MAX_VALUE come back negative like Long.parseUnsignedLong
+         *
+         * @return - The number, which may be above Long.MAX_VALUE and read back as
+         *         negative
+         */
+        long readNumber() throws IOException {
+            if (peek() < '0' || peek() > '9') {
+                throw new IllegalArgumentException("Error: Expected a number in pattern");
+            }
+            long value = 0;
+            while (peek() >= '0' && peek() <= '9') {
+                int digit = read() - '0';
+                if (Long.compareUnsigned(value, MAX_BEFORE_DIGIT) > 0
+                        || (value == MAX_BEFORE_DIGIT && digit > MAX_LAST_DIGIT)) {
+                    throw new IllegalArgumentException("Error: Number in pattern is too large");
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        private boolean fill() throws IOException {
+            int read = in.read(buffer);
+            if (read <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+    }
+}
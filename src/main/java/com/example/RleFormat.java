@@ -0,0 +1,176 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reader and writer for run length encoded patterns. Rows run from the top of
+ * the pattern down, so row r of a pattern is stored at y = -r to keep the top
+ * row at the top of {@link LifeHelpers#printGenerationGrid}. The position of
+ * the top left corner is kept in a "#CXRLE Pos=x,y" line like Golly writes.
+ *
+ * The cell data is read a character at a time and expanded straight into the
+ * set of cells, so no line or token strings are built for it.
+ */
+public class RleFormat {
+    // Longest line of cell data written, as recommended for the format
+    private static final int LINE_LENGTH = 70;
+    private static final Pattern POSITION = Pattern.compile("Pos\\s*=\\s*(-?\\d+)\\s*,\\s*(-?\\d+)");
+    private static final Pattern RULE = Pattern.compile("rule\\s*=\\s*([^,\\s]+)", Pattern.CASE_INSENSITIVE);
+
+    private RleFormat() {
+    }
+
+    /**
+     * Read an RLE pattern
+     *
+     * @param reader - The pattern text
+     * @return - The living cells of the pattern
+     * @throws IOException
+     */
+    public static Set<Cell> read(Reader reader) throws IOException {
+        PatternIO.CharSource in = new PatternIO.CharSource(reader);
+        long left = 0, top = 0;
+
+        // Comment lines and the header come before the cell data
+        boolean header = false;
+        while (!header) {
+            int next = in.peek();
+            if (next < 0) {
+                throw new IllegalArgumentException("Error: RLE pattern is missing its header line");
+            }
+            if (Character.isWhitespace(next)) {
+                in.read();
+                continue;
+            }
+            String line = in.readLine();
+            if (line.startsWith("#CXRLE")) {
+                Matcher position = POSITION.matcher(line);
+                if (position.find()) {
+                    left = Long.parseLong(position.group(1));
+                    top = Long.parseLong(position.group(2));
+                }
+            } else if (!line.startsWith("#")) {
+                if (!line.matches("x\\s*=.*")) {
+                    throw new IllegalArgumentException("Error: Invalid RLE header: " + line);
+                }
+                Matcher rule = RULE.matcher(line);
+                if (rule.find()) {
+                    checkRule(rule.group(1));
+                }
+                header = true;
+            }
+        }
+
+        Set<Cell> cells = new HashSet<>();
+        long row = 0, column = 0;
+        for (int next = in.peek(); next >= 0 && next != '!'; next = in.peek()) {
+            // Counts are unsigned, a gap across the whole board does not fit a signed long
+            long count = next >= '0' && next <= '9' ? in.readNumber() : 1;
+            int tag = in.read();
+            if (tag < 0 || tag == '!') {
+                break;
+            }
+            if (Character.isWhitespace(tag)) {
+                continue;
+            }
+            if (tag == '$') {
+                row += count;
+                column = 0;
+            } else if (tag == 'b' || tag == '.') {
+                column += count;
+            } else if (Character.isLetter(tag)) {
+                // Every other state is alive, which also accepts "o" and multistate letters
+                for (long i = 0; i < count; i++) {
+                    cells.add(new Cell(left + column, -(top + row)));
+                    column++;
+                }
+            } else {
+                throw new IllegalArgumentException("Error: Invalid character in RLE data: " + (char) tag);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Write a pattern as RLE
+     *
+     * @param cells  - The living cells to write
+     * @param writer - Where the pattern text is written
+     * @throws IOException
+     */
+    public static void write(Set<Cell> cells, Writer writer) throws IOException {
+        BoundingBox box = BoundingBox.of(cells);
+        if (box == null) {
+            writer.write("x = 0, y = 0, rule = B3/S23\n!\n");
+            return;
+        }
+        // Sorted from the top row down and left to right along each row
+        Cell[] sorted = cells.toArray(new Cell[0]);
+        Arrays.sort(sorted, (a, b) -> a.y() != b.y() ? Long.compare(b.y(), a.y()) : Long.compare(a.x(), b.x()));
+
+        writer.write(String.format(Locale.ROOT, "#CXRLE Pos=%d,%d\n", box.minX(), -box.maxY()));
+        writer.write("x = " + Long.toUnsignedString(box.maxX() - box.minX() + 1) + ", y = "
+                + Long.toUnsignedString(box.maxY() - box.minY() + 1) + ", rule = B3/S23\n");
+
+        RunWriter runs = new RunWriter(writer);
+        long row = box.maxY();
+        for (int i = 0; i < sorted.length;) {
+            long y = sorted[i].y();
+            runs.write(row - y, '$'); // Skips any empty rows in between as well
+            row = y;
+            long column = box.minX();
+            while (i < sorted.length && sorted[i].y() == y) {
+                int start = i;
+                while (i + 1 < sorted.length && sorted[i + 1].y() == y && sorted[i + 1].x() == sorted[i].x() + 1) {
+                    i++;
+                }
+                runs.write(sorted[start].x() - column, 'b');
+                runs.write(sorted[i].x() - sorted[start].x() + 1, 'o');
+                column = sorted[i].x() + 1;
+                i++;
+            }
+        }
+        runs.write(1, '!');
+        writer.write('\n');
+    }
+
+    private static void checkRule(String rule) {
+        String normalized = rule.toUpperCase(Locale.ROOT);
+        if (!normalized.equals("B3/S23") && !normalized.equals("23/3")) {
+            throw new IllegalArgumentException("Error: Unsupported rule " + rule + ", only B3/S23 is supported");
+        }
+    }
+
+    /**
+     * Writes count and tag pairs, wrapping lines before they pass LINE_LENGTH
+     */
+    private static class RunWriter {
+        private final Writer writer;
+        private int lineLength;
+
+        RunWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        void write(long count, char tag) throws IOException {
+            if (count == 0) {
+                return;
+            }
+            String run = count == 1 ? String.valueOf(tag) : Long.toUnsignedString(count) + tag;
+            if (lineLength + run.length() > LINE_LENGTH) {
+                writer.write('\n');
+                lineLength = 0;
+            }
+            writer.write(run);
+            lineLength += run.length();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An engine that keeps a generation as rows sorted by y, each row a sorted
+ * array of the x coordinates of its living cells. Each row of the next
+ * generation is found by merging the three rows around it in one pass, so
+ * there is no hashing and every array is read front to back. Long rows and
+ * line heavy patterns benefit the most.
+ *
+ * The rows are only converted to and from a set of cells at the ends of a call,
+ * so {@link #advance} runs every step in between on the rows alone. Stepping
+ * from the set this engine last returned also skips sorting it again. Results
+ * are the same as {@link GameOfLife}, including the board ending at the limits
+ * of a long.
+ */
+public class RowSweepEngine implements LifeEngine {
+    private static final long[] EMPTY_ROW = new long[0];
+    // Column counts in the low bits, with MIDDLE set when the middle row has a cell in the column
+    private static final int MIDDLE = 4;
+    private static final int COUNT_MASK = 3;
+
+    private Rows lastRows;
+    private Set<Cell> lastGeneration;
+    // Sweep buffers, reused between rows
+    private long[] columns = new long[64];
+    private int[] counts = new int[64];
+    private long[] output = new long[64];
+
+    @Override
+    public Set<Cell> getNextGeneration(Set<Cell> aliveCells) {
+        return advance(aliveCells, 1);
+    }
+
+    @Override
+    public Set<Cell> advance(Set<Cell> aliveCells, long steps) {
+        if (steps == 0) {
+            return aliveCells;
+        }
+        Rows rows = aliveCells == lastGeneration ? lastRows : Rows.of(aliveCells);
+        for (long step = 0; step < steps; step++) {
+            rows = step(rows);
+        }
+        lastRows = rows;
+        lastGeneration = rows.toCells();
+        return lastGeneration;
+    }
+
+    private Rows step(Rows rows) {
+        Rows next = new Rows();
+        int first = 0; // The first input row at or below y - 1 for the current output row
+        long last = 0;
+        boolean started = false;
+        for (int i = 0; i < rows.size; i++) {
+            long rowY = rows.ys[i];
+            long from = rowY == Long.MIN_VALUE ? rowY : rowY - 1;
+            long to = rowY == Long.MAX_VALUE ? rowY : rowY + 1;
+            // Each input row can change the rows next to it, skipping ones an earlier row already covered
+            if (started && last >= to) {
+                continue;
+            }
+            for (long y = started && from <= last ? last + 1 : from;; y++) {
+                while (y != Long.MIN_VALUE && rows.ys[first] < y - 1) {
+                    first++;
+                }
+                long[] above = EMPTY_ROW, middle = EMPTY_ROW, below = EMPTY_ROW;
+                for (int r = first; r < rows.size && r <= first + 2; r++) {
+                    if (y != Long.MIN_VALUE && rows.ys[r] == y - 1) {
+                        above = rows.xs[r];
+                    } else if (rows.ys[r] == y) {
+                        middle = rows.xs[r];
+                    } else if (y != Long.MAX_VALUE && rows.ys[r] == y + 1) {
+                        below = rows.xs[r];
+                    }
+                }
+                long[] row = sweep(above, middle, below);
+                if (row.length > 0) {
+                    next.add(y, row);
+                }
+                last = y;
+                started = true;
+                if (y == to) {
+                    break;
+                }
+            }
+        }
+        return next;
+    }
+
+    // The next generation of the middle row from the three rows around it
+    private long[] sweep(long[] above, long[] middle, long[] below) {
+        // Merge the three rows into their distinct columns and how many cells each column holds
+        int length = merge(above, middle, below);
+        int found = 0;
+        int window = 0;
+        long last = 0;
+        boolean started = false;
+        for (int k = 0; k < length; k++) {
+            long column = columns[k];
+            long from = column == Long.MIN_VALUE ? column : column - 1;
+            long to = column == Long.MAX_VALUE ? column : column + 1;
+            // Each column can change the columns next to it, skipping ones an earlier column already covered
+            if (started && last >= to) {
+                continue;
+            }
+            for (long x = started && from <= last ? last + 1 : from;; x++) {
+                while (x != Long.MIN_VALUE && columns[window] < x - 1) {
+                    window++;
+                }
+                int neighbours = 0;
+                boolean alive = false;
+                for (int w = window; w < length && (x == Long.MAX_VALUE || columns[w] <= x + 1); w++) {
+                    neighbours += counts[w] & COUNT_MASK;
+                    if (columns[w] == x && (counts[w] & MIDDLE) != 0) {
+                        alive = true;
+                        neighbours--;
+                    }
+                }
+                if (neighbours == 3 || (alive && neighbours == 2)) {
+                    if (found == output.length) {
+                        output = Arrays.copyOf(output, found * 2);
+                    }
+                    output[found++] = x;
+                }
+                last = x;
+                started = true;
+                if (x == to) {
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(output, found);
+    }
+
+    // Merge three sorted rows into columns and counts, returning how many columns there are
+    private int merge(long[] above, long[] middle, long[] below) {
+        int needed = above.length + middle.length + below.length;
+        if (columns.length < needed) {
+            columns = new long[needed];
+            counts = new int[needed];
+        }
+        int a = 0, m = 0, b = 0, length = 0;
+        while (a < above.length || m < middle.length || b < below.length) {
+            long column = Long.MAX_VALUE;
+            if (a < above.length) {
+                column = Math.min(column, above[a]);
+            }
+            if (m < middle.length) {
+                column = Math.min(column, middle[m]);
+            }
+            if (b < below.length) {
+                column = Math.min(column, below[b]);
+            }
+            int count = 0;
+            if (a < above.length && above[a] == column) {
+                count++;
+                a++;
+            }
+            if (m < middle.length && middle[m] == column) {
+                count += 1 | MIDDLE;
+                m++;
+            }
+            if (b < below.length && below[b] == column) {
+                count++;
+                b++;
+            }
+            columns[length] = column;
+            counts[length] = count;
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * A generation as rows sorted by y, each holding the sorted x coordinates of
+     * its living cells. Empty rows are not kept.
+     */
+    private static class Rows {
+        long[] ys = new long[16];
+        long[][] xs = new long[16][];
+        int size;
+
+        static Rows of(Set<Cell> cells) {
+            Cell[] sorted = cells.toArray(new Cell[0]);
+            Arrays.sort(sorted, LifeHelpers.ROW_ORDER);
+            Rows rows = new Rows();
+            for (int start = 0; start < sorted.length;) {
+                int end = start;
+                while (end < sorted.length && sorted[end].y() == sorted[start].y()) {
+                    end++;
+                }
+                long[] row = new long[end - start];
+                for (int i = start; i < end; i++) {
+                    row[i - start] = sorted[i].x();
+                }
+                rows.add(sorted[start].y(), row);
+                start = end;
+            }
+            return rows;
+        }
+
+        void add(long y, long[] row) {
+            if (size == ys.length) {
+                ys = Arrays.copyOf(ys, size * 2);
+                xs = Arrays.copyOf(xs, size * 2);
+            }
+            ys[size] = y;
+            xs[size] = row;
+            size++;
+        }
+
+        Set<Cell> toCells() {
+            int population = 0;
+            for (int i = 0; i < size; i++) {
+                population += xs[i].length;
+            }
+            Set<Cell> cells = new HashSet<>(Math.max(16, (int) (population / 0.75f) + 1));
+            for (int i = 0; i < size; i++) {
+                for (long x : xs[i]) {
+                    cells.add(new Cell(x, ys[i]));
+                }
+            }
+            return cells;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.example;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Publishes every generation of a run into a memory mapped ring buffer file, so
+ * a visualizer in another process can map the same file and read frames as
+ * packed binary coordinates instead of parsing printed output. The game loop
+ * never waits for readers: each frame overwrites the oldest slot, and readers
+ * find out from the sequence numbers when frames were overwritten before they
+ * got to them.
+ *
+ * All values are little endian. The file starts with a 64 byte header:
+ * <pre>
+ *  0  int   magic "LIFE" (0x4546494C)
+ *  4  int   format version, 1
+ *  8  int   number of slots
+ * 12  int   bytes per slot
+ * 16  long  sequence number of the latest complete frame, 0 before the first
+ * </pre>
+ * followed by the slots. Frame n (counting from 1) goes in slot (n - 1) % slots,
+ * and each slot starts with a 32 byte header:
+ * <pre>
+ *  0  long  seqlock, 2n - 1 while frame n is being written and 2n once it is done
+ *  8  long  generation
+ * 16  long  population
+ * 24  int   number of cells stored, less than the population if the slot is full
+ * 28  int   reserved
+ * </pre>
+ * followed by an x and a y long for each stored cell. A reader checks the
+ * seqlock before and after reading a slot, and if it has changed the slot was
+ * overwritten part way through and the frame is missed.
+ *
+ * Register the feed with {@link GameConfig#addListener}, and read it with
+ * {@link Reader}.
+ */
+public class SharedMemoryFeed implements GenerationListener, AutoCloseable {
+    /** Slots in the ring used when no other count is given */
+    public static final int DEFAULT_SLOTS = 8;
+    /** Cells a slot holds when no other size is given */
+    public static final int DEFAULT_MAX_CELLS = 1 << 16;
+
+    static final int MAGIC = 0x4546494C;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int SLOT_HEADER_SIZE = 32;
+    static final int CELL_SIZE = 2 * Long.BYTES;
+    static final int SLOTS_OFFSET = 8;
+    static final int SLOT_SIZE_OFFSET = 12;
+    static final int LATEST_OFFSET = 16;
+    static final int GENERATION_OFFSET = 8;
+    static final int POPULATION_OFFSET = 16;
+    static final int COUNT_OFFSET = 24;
+    // Reads tried in one call before giving up until the next poll
+    static final int MAX_READ_ATTEMPTS = 16;
+    // Ordered access to the sequence numbers shared with other processes
+    static final VarHandle SEQUENCE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slots;
+    private final int slotSize;
+    private final int maxCells;
+    private long sequence;
+    private boolean closed;
+
+    /**
+     * Create a feed with the default number and size of slots
+     *
+     * @param path - The file to map, replacing any existing contents
+     * @throws IOException
+     */
+    public SharedMemoryFeed(Path path) throws IOException {
+        this(path, DEFAULT_SLOTS, DEFAULT_MAX_CELLS);
+    }
+
+    /**
+     * Create a feed
+     *
+     * @param path     - The file to map, replacing any existing contents
+     * @param slots    - How many frames the ring holds before the oldest is
+     *                 overwritten
+     * @param maxCells - The most cells stored for one frame, any more are left
+     *                 out and the frame is marked as truncated
+     * @throws IOException
+     */
+    public SharedMemoryFeed(Path path, int slots, int maxCells) throws IOException {
+        if (slots < 1) {
+            throw new IllegalArgumentException("Error: Feed must have at least one slot");
+        }
+        if (maxCells < 0) {
+            throw new IllegalArgumentException("Error: Cells per slot must not be negative");
+        }
+        long size = HEADER_SIZE + slots * (SLOT_HEADER_SIZE + (long) maxCells * CELL_SIZE);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Error: Feed of " + size + " bytes is too large to map");
+        }
+        this.slots = slots;
+        this.maxCells = maxCells;
+        this.slotSize = SLOT_HEADER_SIZE + maxCells * CELL_SIZE;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(SLOTS_OFFSET, slots);
+        buffer.putInt(SLOT_SIZE_OFFSET, slotSize);
+        SEQUENCE.setRelease(buffer, LATEST_OFFSET, 0L);
+    }
+
+    @Override
+    public void onGeneration(long generation, Set<Cell> cells) {
+        if (closed) {
+            throw new IllegalStateException("Error: Feed is closed");
+        }
+        long frame = ++sequence;
+        int slot = HEADER_SIZE + (int) ((frame - 1) % slots) * slotSize;
+
+        // An odd seqlock tells readers the slot is being rewritten, and must be seen before any of the new data
+        SEQUENCE.setOpaque(buffer, slot, 2 * frame - 1);
+        VarHandle.storeStoreFence();
+        int count = Math.min(cells.size(), maxCells);
+        buffer.putLong(slot + GENERATION_OFFSET, generation);
+        buffer.putLong(slot + POPULATION_OFFSET, cells.size());
+        buffer.putInt(slot + COUNT_OFFSET, count);
+        int position = slot + SLOT_HEADER_SIZE;
+        int stored = 0;
+        for (Cell cell : cells) {
+            if (stored++ == count) {
+                break;
+            }
+            buffer.putLong(position, cell.x());
+            buffer.putLong(position + Long.BYTES, cell.y());
+            position += CELL_SIZE;
+        }
+        SEQUENCE.setRelease(buffer, slot, 2 * frame);
+        SEQUENCE.setRelease(buffer, LATEST_OFFSET, frame);
+    }
+
+    /**
+     * @return - How many frames have been published
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Flush the mapped file to disk and close it. The mapping stays readable by
+     * other processes until they close it themselves.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * One generation read back from a feed
+     *
+     * @param sequence   - The frame's sequence number, counting from 1
+     * @param generation - The generation the frame holds
+     * @param population - How many cells were alive in the generation
+     * @param cells      - The cells stored in the frame, fewer than the population
+     *                   if the frame was truncated
+     * @param missed     - How many frames were overwritten between the previous
+     *                   frame read and this one
+     */
+    public record Frame(long sequence, long generation, long population, Set<Cell> cells, long missed) {
+        /**
+         * @return - Whether some living cells did not fit in the slot
+         */
+        public boolean isTruncated() {
+            return cells.size() < population;
+        }
+    }
+
+    /**
+     * Reads frames from a feed file mapped by this or another process. Reading
+     * never blocks the writer, so a reader that falls more than a ring behind
+     * skips ahead to the oldest frame still held and reports how many it missed.
+     */
+    public static class Reader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int slots;
+        private final int slotSize;
+        private long lastSequence;
+        private long missed;
+
+        /**
+         * Map a feed for reading
+         *
+         * @param path - A file written by a {@link SharedMemoryFeed}
+         * @throws IOException
+         */
+        public Reader(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                if (channel.size() < HEADER_SIZE) {
+                    throw new IllegalArgumentException("Error: " + path + " is not a generation feed");
+                }
+                this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                    throw new IllegalArgumentException("Error: " + path + " is not a generation feed");
+                }
+                this.slots = buffer.getInt(SLOTS_OFFSET);
+                this.slotSize = buffer.getInt(SLOT_SIZE_OFFSET);
+                if (slots < 1 || HEADER_SIZE + (long) slots * slotSize > channel.size()) {
+                    throw new IllegalArgumentException("Error: " + path + " is not a generation feed");
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * @return - The sequence number of the latest complete frame, 0 if none has
+         *         been written
+         */
+        public long latestSequence() {
+            return (long) SEQUENCE.getAcquire(buffer, LATEST_OFFSET);
+        }
+
+        /**
+         * Read the frame after the last one read, skipping ahead past any that were
+         * overwritten. A frame whose slot has moved on is lost, so a writer that
+         * stopped part way through a frame only costs the frame in that slot.
+         *
+         * @return - The next frame, or null if no new frame has been written or the
+         *         slots were overwritten faster than they could be read, in which
+         *         case the caller can poll again
+         */
+        public Frame next() {
+            long latest = latestSequence();
+            if (latest <= lastSequence) {
+                return null;
+            }
+            long wanted = Math.max(lastSequence + 1, latest - slots + 1);
+            for (int attempt = 0; attempt < MAX_READ_ATTEMPTS && wanted <= latest; attempt++) {
+                Frame frame = read(wanted, wanted - lastSequence - 1);
+                if (frame != null) {
+                    return frame;
+                }
+                latest = latestSequence();
+                wanted = Math.max(wanted + 1, latest - slots + 1);
+            }
+            return null;
+        }
+
+        /**
+         * Read the newest frame, skipping any not read yet
+         *
+         * @return - The latest frame, or null if no new frame has been written or it
+         *         was overwritten on every attempt, in which case the caller can poll
+         *         again
+         */
+        public Frame latest() {
+            for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+                long latest = latestSequence();
+                if (latest <= lastSequence) {
+                    return null;
+                }
+                Frame frame = read(latest, latest - lastSequence - 1);
+                if (frame != null) {
+                    return frame;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return - How many frames this reader has missed in total
+         */
+        public long getMissed() {
+            return missed;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        // Read frame n, or null if it was overwritten before the read finished
+        private Frame read(long n, long skipped) {
+            int slot = HEADER_SIZE + (int) ((n - 1) % slots) * slotSize;
+            long before = (long) SEQUENCE.getAcquire(buffer, slot);
+            if (before != 2 * n) {
+                return null;
+            }
+            long generation = buffer.getLong(slot + GENERATION_OFFSET);
+            long population = buffer.getLong(slot + POPULATION_OFFSET);
+            int count = buffer.getInt(slot + COUNT_OFFSET);
+            if (count < 0 || SLOT_HEADER_SIZE + (long) count * CELL_SIZE > slotSize) {
+                count = 0; // Torn header, the seqlock check below rejects the frame
+            }
+            Set<Cell> cells = new HashSet<>();
+            int position = slot + SLOT_HEADER_SIZE;
+            for (int i = 0; i < count; i++) {
+                cells.add(new Cell(buffer.getLong(position), buffer.getLong(position + Long.BYTES)));
+                position += CELL_SIZE;
+            }
+            // Nothing read above may be reordered after the second check
+            VarHandle.loadLoadFence();
+            if ((long) SEQUENCE.getOpaque(buffer, slot) != before) {
+                return null;
+            }
+            missed += skipped;
+            lastSequence = n;
+            return new Frame(n, generation, population, cells, skipped);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.example;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The state of a running game: the living cells and the exact generation they
+ * belong to. Advancing takes the fastest path available, jumping ahead through
+ * a detected cycle, handing long jumps to an engine that can macro-step, or
+ * stepping one generation at a time.
+ *
+ * Cycles are found by comparing a translation independent fingerprint of each
+ * generation with the recent ones, so oscillators and spaceships with a period
+ * up to the configured maximum are both detected. A candidate cycle is only
+ * used once a full period has repeated exactly.
+ */
+public class Simulation {
+    /** Longest period looked for when no other maximum is given */
+    public static final int DEFAULT_MAX_PERIOD = 256;
+
+    // Moving cycles are only jumped while the pattern stays this far from the edge of the board
+    private static final long EDGE_MARGIN = 2;
+
+    private record Signature(long generation, int population, long hash, long minX, long minY) {
+    }
+
+    private record Cycle(long startGeneration, int period, long dx, long dy, List<Set<Cell>> phases,
+            BoundingBox extent) {
+    }
+
+    private final LifeEngine engine;
+    private final int maxPeriod;
+    private final ArrayDeque<Signature> history = new ArrayDeque<>();
+    private Set<Cell> cells;
+    private long generation;
+    private boolean cycleDetection = true;
+
+    // A repeat seen in the fingerprints that is still being confirmed
+    private Signature candidateStart;
+    private int candidatePeriod;
+    private List<Set<Cell>> candidatePhases;
+    private Cycle cycle;
+
+    /**
+     * Create a simulation at generation zero stepped by the standard engine
+     *
+     * @param startingGeneration - The living cells of generation zero
+     */
+    public Simulation(Set<Cell> startingGeneration) {
+        this(startingGeneration, new GameOfLife(), DEFAULT_MAX_PERIOD);
+    }
+
+    /**
+     * Create a simulation at generation zero
+     *
+     * @param startingGeneration - The living cells of generation zero
+     * @param engine             - The engine used to step the game
+     * @param maxPeriod          - The longest cycle period to look for
+     */
+    public Simulation(Set<Cell> startingGeneration, LifeEngine engine, int maxPeriod) {
+        if (startingGeneration == null) {
+            throw new IllegalArgumentException("Error: Starting generation must not be null or empty");
+        }
+        if (engine == null) {
+            throw new IllegalArgumentException("Error: Engine must not be null");
+        }
+        if (maxPeriod <= 0) {
+            throw new IllegalArgumentException("Error: Maximum period must be greater than zero");
+        }
+        this.engine = engine;
+        this.maxPeriod = maxPeriod;
+        this.cells = new HashSet<>(startingGeneration);
+        this.generation = 0;
+    }
+
+    /**
+     * @return - The index of the generation currently held
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return - A read only view of the living cells of the current generation
+     */
+    public Set<Cell> getCells() {
+        return Collections.unmodifiableSet(cells);
+    }
+
+    /**
+     * @return - The engine used to step the game
+     */
+    public LifeEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * @return - The period of the detected cycle, or zero if none has been found
+     */
+    public int getPeriod() {
+        return cycle == null ? 0 : cycle.period();
+    }
+
+    /**
+     * Turn cycle detection on or off. Detection fingerprints every generation,
+     * which is wasted work for patterns that are known never to settle.
+     *
+     * @param enabled - Whether to look for cycles while stepping
+     */
+    public void setCycleDetection(boolean enabled) {
+        this.cycleDetection = enabled;
+        clearDetection();
+    }
+
+    /**
+     * Advance the game by a number of generations
+     *
+     * @param steps - How many generations to advance, zero or more
+     * @return - The index of the generation reached
+     */
+    public long advance(long steps) {
+        if (steps < 0) {
+            throw new IllegalArgumentException("Error: Number of steps must not be negative");
+        }
+        if (steps > Long.MAX_VALUE - generation) {
+            throw new IllegalArgumentException("Error: Generation index would exceed " + Long.MAX_VALUE);
+        }
+        return advanceTo(generation + steps);
+    }
+
+    /**
+     * Advance the game until it reaches the given generation
+     *
+     * @param targetGeneration - The generation to stop at, not before the current
+     *                         one
+     * @return - The index of the generation reached
+     */
+    public long advanceTo(long targetGeneration) {
+        if (targetGeneration < generation) {
+            throw new IllegalArgumentException("Error: Cannot advance backwards from generation " + generation);
+        }
+        while (generation < targetGeneration) {
+            if (cycle != null) {
+                jumpThroughCycle(targetGeneration);
+            } else if (engine.isMacroStepping()) {
+                cells = engine.advance(cells, targetGeneration - generation);
+                generation = targetGeneration;
+                clearDetection();
+            } else {
+                cells = engine.getNextGeneration(cells);
+                generation++;
+                if (cycleDetection) {
+                    observe();
+                }
+            }
+        }
+        return generation;
+    }
+
+    private void clearDetection() {
+        history.clear();
+        candidateStart = null;
+        candidatePhases = null;
+        cycle = null;
+    }
+
+    // Record the fingerprint of the current generation and look for repeats
+    private void observe() {
+        Signature signature = signature(cells, generation);
+
+        if (candidateStart != null) {
+            long stepsIntoCandidate = generation - candidateStart.generation();
+            if (stepsIntoCandidate < candidatePeriod) {
+                Signature expected = historyAt(generation - candidatePeriod);
+                if (expected != null && sameShape(expected, signature)) {
+                    candidatePhases.add(cells);
+                } else {
+                    candidateStart = null;
+                    candidatePhases = null;
+                }
+            } else {
+                confirmCandidate(signature);
+            }
+        }
+
+        if (candidateStart == null && cycle == null) {
+            // The most recent match gives the shortest period
+            Iterator<Signature> recent = history.descendingIterator();
+            while (recent.hasNext()) {
+                Signature earlier = recent.next();
+                if (sameShape(earlier, signature)) {
+                    candidateStart = signature;
+                    candidatePeriod = (int) (generation - earlier.generation());
+                    candidatePhases = new ArrayList<>();
+                    candidatePhases.add(cells);
+                    break;
+                }
+            }
+        }
+
+        history.addLast(signature);
+        if (history.size() > maxPeriod) {
+            history.removeFirst();
+        }
+    }
+
+    // A full period has repeated in fingerprints, check the generation exactly
+    private void confirmCandidate(Signature signature) {
+        long dx = signature.minX() - candidateStart.minX();
+        long dy = signature.minY() - candidateStart.minY();
+        if (cells.equals(shift(candidatePhases.get(0), dx, dy))) {
+            BoundingBox extent = null;
+            for (Set<Cell> phase : candidatePhases) {
+                extent = BoundingBox.union(extent, BoundingBox.of(phase));
+            }
+            cycle = new Cycle(candidateStart.generation(), candidatePeriod, dx, dy, candidatePhases, extent);
+        }
+        candidateStart = null;
+        candidatePhases = null;
+    }
+
+    // Move straight to the target generation, or as far towards it as the board edge allows
+    private void jumpThroughCycle(long targetGeneration) {
+        long stepsIntoCycle = targetGeneration - cycle.startGeneration();
+        long periods = stepsIntoCycle / cycle.period();
+        int phase = (int) (stepsIntoCycle % cycle.period());
+
+        long safePeriods = safeRepeats(cycle);
+        if (periods > safePeriods) {
+            // Jump as close to the edge as is safe, then step the rest of the way since
+            // the pattern will change once it reaches the edge
+            long safeGeneration = cycle.startGeneration() + safePeriods * cycle.period();
+            if (safeGeneration > generation) {
+                generation = safeGeneration;
+                cells = shift(cycle.phases().get(0), safePeriods * cycle.dx(), safePeriods * cycle.dy());
+            }
+            clearDetection();
+            cycleDetection = false;
+            return;
+        }
+        cells = shift(cycle.phases().get(phase), periods * cycle.dx(), periods * cycle.dy());
+        generation = targetGeneration;
+    }
+
+    private static long safeRepeats(Cycle cycle) {
+        if (cycle.extent() == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.min(
+                safeRepeats(cycle.extent().minX(), cycle.extent().maxX(), cycle.dx()),
+                safeRepeats(cycle.extent().minY(), cycle.extent().maxY(), cycle.dy()));
+    }
+
+    // How many times the range low..high can move by delta while staying clear of the edges
+    private static long safeRepeats(long low, long high, long delta) {
+        if (delta == 0) {
+            return Long.MAX_VALUE;
+        }
+        long room;
+        if (delta > 0) {
+            if (high > Long.MAX_VALUE - EDGE_MARGIN) {
+                return 0;
+            }
+            room = Long.MAX_VALUE - EDGE_MARGIN - high; // Unsigned, may not fit a signed long
+        } else {
+            if (low < Long.MIN_VALUE + EDGE_MARGIN) {
+                return 0;
+            }
+            room = low - (Long.MIN_VALUE + EDGE_MARGIN);
+        }
+        long repeats = Long.divideUnsigned(room, Math.abs(delta));
+        return repeats < 0 ? Long.MAX_VALUE : repeats;
+    }
+
+    private Signature historyAt(long earlierGeneration) {
+        for (Signature signature : history) {
+            if (signature.generation() == earlierGeneration) {
+                return signature;
+            }
+        }
+        return null;
+    }
+
+    private static boolean sameShape(Signature a, Signature b) {
+        return a.population() == b.population() && a.hash() == b.hash();
+    }
+
+    // Order and position independent fingerprint of a generation
+    private static Signature signature(Set<Cell> cells, long generation) {
+        BoundingBox box = BoundingBox.of(cells);
+        if (box == null) {
+            return new Signature(generation, 0, 0, 0, 0);
+        }
+        long hash = 0;
+        for (Cell cell : cells) {
+            hash += LifeHelpers.mix((cell.x() - box.minX()) * 0x9E3779B97F4A7C15L + (cell.y() - box.minY()));
+        }
+        return new Signature(generation, cells.size(), hash, box.minX(), box.minY());
+    }
+
+    private static Set<Cell> shift(Set<Cell> cells, long dx, long dy) {
+        if (dx == 0 && dy == 0) {
+            return cells;
+        }
+        Set<Cell> shifted = new HashSet<>();
+        for (Cell cell : cells) {
+            shifted.add(new Cell(cell.x() + dx, cell.y() + dy));
+        }
+        return shifted;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes every completed generation of a run as a {@link GenerationSnapshot}
+ * through an atomic reference. The game loop only allocates the small snapshot
+ * object and swaps the reference, and any number of readers can fetch the
+ * latest snapshot at any time without locking or copying.
+ *
+ * Register the publisher with {@link GameConfig#addListener}.
+ */
+public class SnapshotPublisher implements GenerationListener {
+    private final AtomicReference<GenerationSnapshot> latest = new AtomicReference<>();
+
+    @Override
+    public void onGeneration(long generation, Set<Cell> cells) {
+        latest.set(new GenerationSnapshot(generation, cells));
+    }
+
+    /**
+     * @return - The most recently completed generation, or null if the run has
+     *         not started yet
+     */
+    public GenerationSnapshot latest() {
+        return latest.get();
+    }
+}
@@ -0,0 +1,294 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Long running benchmark of runGenerations over a fixed, seeded corpus of
+ * patterns. For every pattern it records throughput in cells per second, peak
+ * heap, time spent in garbage collection and the 99th percentile step latency,
+ * and writes them to a report that can be compared against a stored baseline.
+ *
+ * Run it through the soak profile so the build fails on a regression:
+ *
+ * <pre>
+ * mvn verify -Psoak -Dsoak.generations=100000
+ * </pre>
+ */
+public class SoakBenchmark {
+    /** Allowed relative change before a metric counts as a regression */
+    public static final double DEFAULT_TOLERANCE = 0.25;
+
+    private static final long SEED = 31;
+    private static final int SOUP_SIZE = 64;
+    private static final double[] SOUP_DENSITIES = { 0.2, 0.35, 0.5 };
+    // GC time is noisy at small values, so this much extra time is always allowed
+    private static final double GC_SLACK_MILLIS = 50;
+
+    /**
+     * The metrics recorded for each pattern and which direction is worse
+     */
+    enum Metric {
+        CELLS_PER_SECOND("cellsPerSecond", false, 0),
+        PEAK_HEAP_BYTES("peakHeapBytes", true, 0),
+        GC_MILLIS("gcMillis", true, GC_SLACK_MILLIS),
+        P99_STEP_MICROS("p99StepMicros", true, 0),
+        FINAL_POPULATION("finalPopulation", true, 0);
+
+        final String key;
+        final boolean higherIsWorse;
+        final double slack;
+
+        Metric(String key, boolean higherIsWorse, double slack) {
+            this.key = key;
+            this.higherIsWorse = higherIsWorse;
+            this.slack = slack;
+        }
+    }
+
+    /**
+     * Times every step of a run from the gaps between generations
+     */
+    private static class StepTimer implements GenerationListener {
+        private final long[] stepNanos;
+        private long previousTime;
+        private long previousPopulation;
+        private long cellsProcessed;
+        private int steps;
+        private long finalPopulation;
+
+        StepTimer(int generations) {
+            stepNanos = new long[Math.max(1, generations)];
+        }
+
+        @Override
+        public void onGeneration(long generation, Set<Cell> cells) {
+            long now = System.nanoTime();
+            if (generation > 0) {
+                stepNanos[steps++] = now - previousTime;
+                cellsProcessed += previousPopulation;
+            }
+            previousTime = now;
+            previousPopulation = cells.size();
+            finalPopulation = cells.size();
+        }
+    }
+
+    /**
+     * Build the benchmark corpus: the bundled examples, two methuselahs and random
+     * soups at several densities
+     *
+     * @param examplesDirectory - Directory of #Life 1.06 examples, skipped if it
+     *                          does not exist
+     * @return - The patterns keyed by name, in a fixed order
+     * @throws IOException
+     */
+    public static Map<String, Set<Cell>> corpus(Path examplesDirectory) throws IOException {
+        Map<String, Set<Cell>> corpus = new LinkedHashMap<>();
+        if (examplesDirectory != null && Files.isDirectory(examplesDirectory)) {
+            try (Stream<Path> files = Files.list(examplesDirectory)) {
+                for (Path file : files.sorted().toList()) {
+                    String name = file.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+                    corpus.put(name, LifeHelpers.getCellsFromFile(file.toString()));
+                }
+            }
+        }
+        corpus.put("r-pentomino", LifeHelpers.createStartingCellSet(new long[][] {
+                { 1, 2 }, { 2, 2 },
+                { 0, 1 }, { 1, 1 },
+                { 1, 0 } }));
+        corpus.put("acorn", LifeHelpers.createStartingCellSet(new long[][] {
+                { 1, 2 },
+                { 3, 1 },
+                { 0, 0 }, { 1, 0 }, { 4, 0 }, { 5, 0 }, { 6, 0 } }));
+        Random random = new Random(SEED);
+        for (double density : SOUP_DENSITIES) {
+            Set<Cell> soup = new HashSet<>();
+            for (int x = 0; x < SOUP_SIZE; x++) {
+                for (int y = 0; y < SOUP_SIZE; y++) {
+                    if (random.nextDouble() < density) {
+                        soup.add(new Cell(x, y));
+                    }
+                }
+            }
+            corpus.put("soup-" + Math.round(density * 100), soup);
+        }
+        return corpus;
+    }
+
+    /**
+     * Run every pattern of the corpus and collect the metrics into a report
+     *
+     * @param corpus      - The patterns to run
+     * @param generations - How many generations to run each pattern for
+     * @return - The report, with one entry per pattern and metric
+     */
+    public static Properties run(Map<String, Set<Cell>> corpus, int generations) {
+        Properties report = new Properties();
+        report.setProperty("generations", Integer.toString(generations));
+        for (Map.Entry<String, Set<Cell>> pattern : corpus.entrySet()) {
+            System.gc(); // Start each pattern from a clean heap so peaks are comparable
+            List<MemoryPoolMXBean> heapPools = heapPools();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long gcStart = gcMillis();
+
+            StepTimer timer = new StepTimer(generations);
+            GameConfig config = new GameConfig(false, false, false).addListener(timer);
+            long start = System.nanoTime();
+            new GameOfLife().runGenerations(generations, pattern.getValue(), config);
+            long elapsed = System.nanoTime() - start;
+
+            long peakHeap = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+            long[] steps = Arrays.copyOf(timer.stepNanos, timer.steps);
+            Arrays.sort(steps);
+            long p99 = steps.length == 0 ? 0 : steps[(int) Math.ceil(steps.length * 0.99) - 1];
+
+            String name = pattern.getKey();
+            put(report, name, Metric.CELLS_PER_SECOND, timer.cellsProcessed / Math.max(elapsed / 1e9, 1e-9));
+            put(report, name, Metric.PEAK_HEAP_BYTES, peakHeap);
+            put(report, name, Metric.GC_MILLIS, gcMillis() - gcStart);
+            put(report, name, Metric.P99_STEP_MICROS, p99 / 1_000.0);
+            put(report, name, Metric.FINAL_POPULATION, timer.finalPopulation);
+        }
+        return report;
+    }
+
+    /**
+     * Compare a report against a baseline
+     *
+     * @param report    - The report of the current run
+     * @param baseline  - The report of the baseline run
+     * @param tolerance - The allowed relative change, 0.25 allows 25% worse
+     * @return - A description of every regression, empty if there are none
+     */
+    public static List<String> compare(Properties report, Properties baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        if (!baseline.getProperty("generations", "").equals(report.getProperty("generations"))) {
+            regressions.add("Baseline ran " + baseline.getProperty("generations") + " generations but this run used "
+                    + report.getProperty("generations"));
+            return regressions;
+        }
+        for (String key : new TreeSet<>(baseline.stringPropertyNames())) {
+            Metric metric = metricOf(key);
+            if (metric == null) {
+                continue;
+            }
+            if (report.getProperty(key) == null) {
+                regressions.add(key + " is missing from the report");
+                continue;
+            }
+            double expected = Double.parseDouble(baseline.getProperty(key));
+            double actual = Double.parseDouble(report.getProperty(key));
+            boolean regressed;
+            if (metric == Metric.FINAL_POPULATION) {
+                regressed = expected != actual; // The result of a run must never change
+            } else if (metric.higherIsWorse) {
+                regressed = actual > expected * (1 + tolerance) + metric.slack;
+            } else {
+                regressed = actual < expected * (1 - tolerance) - metric.slack;
+            }
+            if (regressed) {
+                regressions.add(String.format(Locale.ROOT, "%s regressed: baseline %.1f, now %.1f", key, expected, actual));
+            }
+        }
+        return regressions;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int generations = 1000;
+        Path examples = Path.of("src/test/resources/examples");
+        Path reportPath = Path.of("target/soak-report.properties");
+        Path baselinePath = null;
+        double tolerance = DEFAULT_TOLERANCE;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--generations" -> generations = Integer.parseInt(args[i + 1]);
+                case "--examples" -> examples = Path.of(args[i + 1]);
+                case "--report" -> reportPath = Path.of(args[i + 1]);
+                case "--baseline" -> baselinePath = Path.of(args[i + 1]);
+                case "--tolerance" -> tolerance = Double.parseDouble(args[i + 1]);
+                default -> {
+                    System.err.println("Usage: java SoakBenchmark [--generations n] [--examples dir] [--report file]"
+                            + " [--baseline file] [--tolerance fraction]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        Properties report = run(corpus(examples), generations);
+        if (reportPath.getParent() != null) {
+            Files.createDirectories(reportPath.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(reportPath)) {
+            report.store(writer, "Soak benchmark report");
+        }
+        for (String key : new TreeSet<>(report.stringPropertyNames())) {
+            System.out.println(key + " = " + report.getProperty(key));
+        }
+        System.out.println("Report written to " + reportPath);
+
+        if (baselinePath == null || !Files.exists(baselinePath)) {
+            System.out.println("No baseline to compare against, copy the report to the baseline path to create one");
+            return;
+        }
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(baselinePath)) {
+            baseline.load(reader);
+        }
+        List<String> regressions = compare(report, baseline, tolerance);
+        if (!regressions.isEmpty()) {
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+        System.out.println("No regressions against " + baselinePath);
+    }
+
+    private static void put(Properties report, String pattern, Metric metric, double value) {
+        report.setProperty(pattern + "." + metric.key, String.format(Locale.ROOT, "%.1f", value));
+    }
+
+    private static Metric metricOf(String key) {
+        for (Metric metric : Metric.values()) {
+            if (key.endsWith("." + metric.key)) {
+                return metric;
+            }
+        }
+        return null;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+}
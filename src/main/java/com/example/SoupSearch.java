@@ -0,0 +1,412 @@
+package com.example;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs large numbers of small random soups to stabilization. Instead of a
+ * {@link GameOfLife} and a set of cells per soup, each soup lives in a 64x64
+ * box stored as 64 words of bits, and soups are stepped in batches held in
+ * one flat array with bitwise adders, so a generation of a soup costs a few
+ * hundred word operations and no allocation. Batches are spread over every
+ * core by a fork join pool, whose work stealing keeps the cores busy even
+ * though some soups settle in a few generations and others take thousands.
+ *
+ * A soup is retired once it repeats an earlier state, found with Brent's cycle
+ * detection so only one saved state per soup is needed, once a cell reaches
+ * the edge of its box (usually an escaping glider), or after the generation
+ * limit. Only the totals of a search are kept. Close the search once it is no
+ * longer needed to stop its worker threads.
+ */
+public class SoupSearch implements AutoCloseable {
+    /** Width and height of a soup */
+    public static final int SOUP_SIZE = 16;
+    /** Width and height of the box each soup is run in */
+    public static final int UNIVERSE_SIZE = 64;
+    /** Generation limit used when no other is given */
+    public static final int DEFAULT_MAX_GENERATIONS = 10_000;
+
+    // Soups stepped together in one array, also the smallest piece of work that is split off
+    static final int BATCH_SIZE = 64;
+    private static final int SOUP_OFFSET = (UNIVERSE_SIZE - SOUP_SIZE) / 2;
+    private static final long EDGE_COLUMNS = 1L | (1L << (UNIVERSE_SIZE - 1));
+
+    /**
+     * How a soup ended
+     */
+    public enum Outcome {
+        /** The soup repeated an earlier state without touching the edge of its box */
+        STABILIZED,
+        /** A cell reached the edge of the box, so the soup no longer fits */
+        ESCAPED,
+        /** The soup was still changing at the generation limit */
+        UNSETTLED
+    }
+
+    /**
+     * The result of a single soup
+     *
+     * @param index      - The index of the soup within the search
+     * @param outcome    - How the soup ended
+     * @param generation - The generation the soup was retired at
+     * @param period     - The period of the final state, zero unless stabilized
+     * @param population - The living cells at retirement
+     */
+    record SoupResult(long index, Outcome outcome, int generation, int period, int population) {
+    }
+
+    /**
+     * Totals of a search
+     */
+    public static class Summary {
+        private final Map<Outcome, Long> outcomes = new TreeMap<>();
+        private final TreeMap<Integer, Long> periods = new TreeMap<>();
+        private long soups;
+        private long diedOut;
+        private long generations;
+        private long longestIndex = -1;
+        private int longestGeneration = -1;
+        private long elapsedNanos;
+
+        void add(SoupResult result) {
+            soups++;
+            generations += result.generation();
+            outcomes.merge(result.outcome(), 1L, Long::sum);
+            if (result.outcome() == Outcome.STABILIZED) {
+                if (result.population() == 0) {
+                    diedOut++;
+                } else {
+                    periods.merge(result.period(), 1L, Long::sum);
+                }
+                if (result.generation() > longestGeneration) {
+                    longestGeneration = result.generation();
+                    longestIndex = result.index();
+                }
+            }
+        }
+
+        Summary merge(Summary other) {
+            soups += other.soups;
+            diedOut += other.diedOut;
+            generations += other.generations;
+            other.outcomes.forEach((outcome, count) -> outcomes.merge(outcome, count, Long::sum));
+            other.periods.forEach((period, count) -> periods.merge(period, count, Long::sum));
+            if (other.longestGeneration > longestGeneration) {
+                longestGeneration = other.longestGeneration;
+                longestIndex = other.longestIndex;
+            }
+            return this;
+        }
+
+        /**
+         * @return - The number of soups run
+         */
+        public long getSoups() {
+            return soups;
+        }
+
+        /**
+         * @param outcome - The outcome to count
+         * @return - The number of soups that ended that way
+         */
+        public long getCount(Outcome outcome) {
+            return outcomes.getOrDefault(outcome, 0L);
+        }
+
+        /**
+         * @return - The number of stabilized soups with no living cells left
+         */
+        public long getDiedOut() {
+            return diedOut;
+        }
+
+        /**
+         * @return - The number of stabilized soups with living cells left, keyed by
+         *         the period of their final state
+         */
+        public Map<Integer, Long> getPeriods() {
+            return new TreeMap<>(periods);
+        }
+
+        /**
+         * @return - The generations run over every soup
+         */
+        public long getGenerations() {
+            return generations;
+        }
+
+        /**
+         * @return - The index of the stabilized soup that took longest to settle,
+         *         or -1 if none stabilized
+         */
+        public long getLongestIndex() {
+            return longestIndex;
+        }
+
+        /**
+         * @return - The generations the longest lived stabilized soup took
+         */
+        public int getLongestGeneration() {
+            return longestGeneration;
+        }
+
+        /**
+         * @return - The number of soups run per hour of wall clock time
+         */
+        public double getSoupsPerHour() {
+            return elapsedNanos == 0 ? 0 : soups * 3_600e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d soups: %d stabilized (%d died out), %d escaped, %d unsettled, periods %s,"
+                            + " longest soup %d at %d generations, %.0f soups per hour",
+                    soups, getCount(Outcome.STABILIZED), diedOut, getCount(Outcome.ESCAPED),
+                    getCount(Outcome.UNSETTLED), periods, longestIndex, longestGeneration, getSoupsPerHour());
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int maxGenerations;
+
+    /**
+     * Create a search using every available processor and the default generation
+     * limit
+     */
+    public SoupSearch() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_GENERATIONS);
+    }
+
+    /**
+     * Create a search
+     *
+     * @param threads        - How many soups batches are run at once
+     * @param maxGenerations - The generation a soup is given up on if it has not
+     *                       settled
+     */
+    public SoupSearch(int threads, int maxGenerations) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Error: Number of threads must be greater than zero");
+        }
+        if (maxGenerations <= 0) {
+            throw new IllegalArgumentException("Error: Number of generations must be greater than zero");
+        }
+        this.pool = new ForkJoinPool(threads);
+        this.maxGenerations = maxGenerations;
+    }
+
+    /**
+     * Run a range of soups, each soup is determined by the seed and its index so
+     * any soup of a search can be rebuilt with {@link #soupCells}
+     *
+     * @param seed  - The seed of the search
+     * @param soups - How many soups to run, starting at index zero
+     * @return - The totals of the search
+     */
+    public Summary run(long seed, long soups) {
+        long start = System.nanoTime();
+        Summary summary = pool.invoke(new BatchTask(seed, 0, soups, maxGenerations));
+        summary.elapsedNanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    /**
+     * Stop the worker threads of the search, a running search finishes first
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Rebuild the starting cells of a soup, with the box running from 0 to 63 on
+     * both axes
+     *
+     * @param seed  - The seed of the search
+     * @param index - The index of the soup
+     * @return - The living cells of the soup
+     */
+    public static Set<Cell> soupCells(long seed, long index) {
+        long[] rows = new long[UNIVERSE_SIZE];
+        fillSoup(seed, index, rows, 0);
+        Set<Cell> cells = new HashSet<>();
+        for (int y = 0; y < UNIVERSE_SIZE; y++) {
+            for (long bits = rows[y]; bits != 0; bits &= bits - 1) {
+                cells.add(new Cell(Long.numberOfTrailingZeros(bits), y));
+            }
+        }
+        return cells;
+    }
+
+    public static void main(String[] args) {
+        long seed = System.nanoTime();
+        long soups = 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxGenerations = DEFAULT_MAX_GENERATIONS;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--soups" -> soups = Long.parseLong(args[i + 1]);
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--max-generations" -> maxGenerations = Integer.parseInt(args[i + 1]);
+                default -> {
+                    System.err.println("Usage: java SoupSearch [--seed n] [--soups n] [--threads n]"
+                            + " [--max-generations n]");
+                    System.exit(2);
+                }
+            }
+        }
+        try (SoupSearch search = new SoupSearch(threads, maxGenerations)) {
+            System.out.println("Seed " + seed + ": " + search.run(seed, soups));
+        }
+    }
+
+    /**
+     * Run a batch of soups stepped together until every one of them is retired
+     *
+     * @param seed           - The seed of the search
+     * @param firstIndex     - The index of the first soup of the batch
+     * @param count          - The number of soups, at most BATCH_SIZE
+     * @param maxGenerations - The generation limit
+     * @return - The result of each soup, in index order
+     */
+    static SoupResult[] runBatch(long seed, long firstIndex, int count, int maxGenerations) {
+        long[] current = new long[count * UNIVERSE_SIZE];
+        long[] next = new long[count * UNIVERSE_SIZE];
+        long[] saved = new long[count * UNIVERSE_SIZE];
+        int[] power = new int[count];
+        int[] distance = new int[count];
+        SoupResult[] results = new SoupResult[count];
+
+        for (int soup = 0; soup < count; soup++) {
+            fillSoup(seed, firstIndex + soup, current, soup * UNIVERSE_SIZE);
+            System.arraycopy(current, soup * UNIVERSE_SIZE, saved, soup * UNIVERSE_SIZE, UNIVERSE_SIZE);
+            power[soup] = 1;
+        }
+
+        int active = count;
+        for (int generation = 1; active > 0; generation++) {
+            for (int soup = 0; soup < count; soup++) {
+                if (results[soup] != null) {
+                    continue;
+                }
+                int base = soup * UNIVERSE_SIZE;
+                long index = firstIndex + soup;
+                if (step(current, next, base)) {
+                    results[soup] = new SoupResult(index, Outcome.ESCAPED, generation, 0, population(next, base));
+                } else if (matches(next, saved, base)) {
+                    results[soup] = new SoupResult(index, Outcome.STABILIZED, generation, distance[soup] + 1,
+                            population(next, base));
+                } else if (generation >= maxGenerations) {
+                    results[soup] = new SoupResult(index, Outcome.UNSETTLED, generation, 0, population(next, base));
+                } else if (++distance[soup] == power[soup]) {
+                    // Brent's method: move the saved state forward, doubling the longest period it can catch
+                    System.arraycopy(next, base, saved, base, UNIVERSE_SIZE);
+                    power[soup] *= 2;
+                    distance[soup] = 0;
+                }
+                if (results[soup] != null) {
+                    active--;
+                }
+            }
+            long[] swap = current;
+            current = next;
+            next = swap;
+        }
+        return results;
+    }
+
+    /**
+     * Step one soup of a batch, a row of the box at a time
+     *
+     * @return - true if any cell of the new generation is on the edge of the box
+     */
+    private static boolean step(long[] current, long[] next, int base) {
+        long edges = 0;
+        long above = 0;
+        long row = current[base];
+        for (int y = 0; y < UNIVERSE_SIZE; y++) {
+            long below = y + 1 < UNIVERSE_SIZE ? current[base + y + 1] : 0;
+
+            long result = BitTileEngine.applyRules(above << 1, above, above >>> 1, row << 1, row >>> 1,
+                    below << 1, below, below >>> 1, row);
+            next[base + y] = result;
+            edges |= (y == 0 || y == UNIVERSE_SIZE - 1) ? result : result & EDGE_COLUMNS;
+
+            above = row;
+            row = below;
+        }
+        return edges != 0;
+    }
+
+    private static boolean matches(long[] state, long[] saved, int base) {
+        for (int y = 0; y < UNIVERSE_SIZE; y++) {
+            if (state[base + y] != saved[base + y]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int population(long[] state, int base) {
+        int population = 0;
+        for (int y = 0; y < UNIVERSE_SIZE; y++) {
+            population += Long.bitCount(state[base + y]);
+        }
+        return population;
+    }
+
+    // Fill the middle of a box with the random cells of a soup
+    private static void fillSoup(long seed, long index, long[] rows, int base) {
+        long state = seed ^ LifeHelpers.mix(index + 0x9E3779B97F4A7C15L);
+        for (int y = 0; y < SOUP_SIZE; y += 4) {
+            state = LifeHelpers.mix(state + 0x9E3779B97F4A7C15L);
+            for (int part = 0; part < 4; part++) {
+                long bits = (state >>> (part * SOUP_SIZE)) & 0xFFFFL;
+                rows[base + SOUP_OFFSET + y + part] = bits << SOUP_OFFSET;
+            }
+        }
+    }
+
+    /**
+     * Splits a range of soups in half until it fits in a batch, idle workers steal
+     * the halves that have not been started yet
+     */
+    private static class BatchTask extends RecursiveTask<Summary> {
+        private static final long serialVersionUID = 1L;
+
+        private final long seed;
+        private final long from;
+        private final long to;
+        private final int maxGenerations;
+
+        BatchTask(long seed, long from, long to, int maxGenerations) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.maxGenerations = maxGenerations;
+        }
+
+        @Override
+        protected Summary compute() {
+            if (to - from <= BATCH_SIZE) {
+                Summary summary = new Summary();
+                for (SoupResult result : runBatch(seed, from, (int) (to - from), maxGenerations)) {
+                    summary.add(result);
+                }
+                return summary;
+            }
+            long middle = from + (to - from) / 2;
+            BatchTask left = new BatchTask(seed, from, middle, maxGenerations);
+            left.fork();
+            Summary right = new BatchTask(seed, middle, to, maxGenerations).compute();
+            return right.merge(left.join());
+        }
+    }
+}
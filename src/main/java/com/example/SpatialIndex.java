@@ -0,0 +1,300 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A spatial index of living cells for rectangle queries, counts and nearest
+ * cell lookups. The board is split into 64x64 tiles, each stored as one 64 bit
+ * word per row, and tiles are kept in sorted maps by row then column. A query
+ * only visits the tiles overlapping its rectangle and pulls the living cells
+ * out of each word a set bit at a time, so its cost follows the number of
+ * cells found rather than the population.
+ *
+ * {@link GenerationStats} keeps an index up to date from the births and deaths
+ * of each step, or one can be built from any generation with {@link #of}.
+ */
+public class SpatialIndex {
+    /** Bits a coordinate is shifted right by to give its tile */
+    public static final int TILE_SHIFT = 6;
+    /** Width and height of a tile */
+    public static final int TILE_SIZE = 1 << TILE_SHIFT;
+
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    /**
+     * The living cells of one tile, bit x of row y is the cell at that offset
+     * from the tile origin
+     */
+    private static class Tile {
+        final long[] rows = new long[TILE_SIZE];
+        int population;
+    }
+
+    private final TreeMap<Long, TreeMap<Long, Tile>> tileRows = new TreeMap<>();
+    private long size;
+    private long tileCount;
+
+    /**
+     * Build an index holding every cell of a generation
+     *
+     * @param cells - The living cells to index
+     * @return - The new index
+     */
+    public static SpatialIndex of(Set<Cell> cells) {
+        SpatialIndex index = new SpatialIndex();
+        for (Cell cell : cells) {
+            index.add(cell);
+        }
+        return index;
+    }
+
+    /**
+     * @param cell - The cell to add
+     * @return - true if the cell was not already in the index
+     */
+    public boolean add(Cell cell) {
+        Tile tile = tileRows.computeIfAbsent(cell.y() >> TILE_SHIFT, row -> new TreeMap<>())
+                .computeIfAbsent(cell.x() >> TILE_SHIFT, column -> {
+                    tileCount++;
+                    return new Tile();
+                });
+        long bit = 1L << (cell.x() & TILE_MASK);
+        int row = (int) (cell.y() & TILE_MASK);
+        if ((tile.rows[row] & bit) != 0) {
+            return false;
+        }
+        tile.rows[row] |= bit;
+        tile.population++;
+        size++;
+        return true;
+    }
+
+    /**
+     * @param cell - The cell to remove
+     * @return - true if the cell was in the index
+     */
+    public boolean remove(Cell cell) {
+        TreeMap<Long, Tile> row = tileRows.get(cell.y() >> TILE_SHIFT);
+        Tile tile = row == null ? null : row.get(cell.x() >> TILE_SHIFT);
+        long bit = 1L << (cell.x() & TILE_MASK);
+        int rowIndex = (int) (cell.y() & TILE_MASK);
+        if (tile == null || (tile.rows[rowIndex] & bit) == 0) {
+            return false;
+        }
+        tile.rows[rowIndex] &= ~bit;
+        tile.population--;
+        size--;
+        if (tile.population == 0) {
+            row.remove(cell.x() >> TILE_SHIFT);
+            tileCount--;
+            if (row.isEmpty()) {
+                tileRows.remove(cell.y() >> TILE_SHIFT);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param cell - The cell to check
+     * @return - true if the cell is in the index
+     */
+    public boolean contains(Cell cell) {
+        TreeMap<Long, Tile> row = tileRows.get(cell.y() >> TILE_SHIFT);
+        Tile tile = row == null ? null : row.get(cell.x() >> TILE_SHIFT);
+        return tile != null && (tile.rows[(int) (cell.y() & TILE_MASK)] & (1L << (cell.x() & TILE_MASK))) != 0;
+    }
+
+    /**
+     * @return - The number of cells in the index
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Remove every cell from the index
+     */
+    public void clear() {
+        tileRows.clear();
+        size = 0;
+        tileCount = 0;
+    }
+
+    /**
+     * @param region - The rectangle to look in, bounds inclusive
+     * @return - The cells inside the region, ordered by row then column
+     */
+    public List<Cell> query(BoundingBox region) {
+        List<Cell> found = new ArrayList<>();
+        for (Map.Entry<Long, TreeMap<Long, Tile>> row : rowsIn(region).entrySet()) {
+            long tileY = row.getKey();
+            int firstRow = firstOffset(region.minY(), tileY);
+            int lastRow = lastOffset(region.maxY(), tileY);
+            NavigableMap<Long, Tile> tiles = row.getValue().subMap(region.minX() >> TILE_SHIFT, true,
+                    region.maxX() >> TILE_SHIFT, true);
+            for (int offsetY = firstRow; offsetY <= lastRow; offsetY++) {
+                long y = (tileY << TILE_SHIFT) + offsetY;
+                for (Map.Entry<Long, Tile> tile : tiles.entrySet()) {
+                    long tileX = tile.getKey();
+                    long bits = tile.getValue().rows[offsetY] & columnMask(region, tileX);
+                    while (bits != 0) {
+                        found.add(new Cell((tileX << TILE_SHIFT) + Long.numberOfTrailingZeros(bits), y));
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param region - The rectangle to look in, bounds inclusive
+     * @return - The number of cells inside the region
+     */
+    public long count(BoundingBox region) {
+        long count = 0;
+        for (Map.Entry<Long, TreeMap<Long, Tile>> row : rowsIn(region).entrySet()) {
+            long tileY = row.getKey();
+            int firstRow = firstOffset(region.minY(), tileY);
+            int lastRow = lastOffset(region.maxY(), tileY);
+            for (Map.Entry<Long, Tile> tile : row.getValue().subMap(region.minX() >> TILE_SHIFT, true,
+                    region.maxX() >> TILE_SHIFT, true).entrySet()) {
+                long mask = columnMask(region, tile.getKey());
+                if (mask == -1L && firstRow == 0 && lastRow == TILE_MASK) {
+                    count += tile.getValue().population; // Tiles fully inside the region are not scanned
+                    continue;
+                }
+                long[] rows = tile.getValue().rows;
+                for (int offsetY = firstRow; offsetY <= lastRow; offsetY++) {
+                    count += Long.bitCount(rows[offsetY] & mask);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Find the living cell closest to a point by straight line distance. Ties are
+     * broken by the lowest row, then the lowest column.
+     *
+     * @param x - Column of the point
+     * @param y - Row of the point
+     * @return - The nearest cell, or null if the index is empty
+     */
+    public Cell nearest(long x, long y) {
+        if (size == 0) {
+            return null;
+        }
+        long centerX = x >> TILE_SHIFT;
+        long centerY = y >> TILE_SHIFT;
+        Nearest best = new Nearest(x, y);
+        // Search rings of tiles outwards, a cell in ring r + 1 is at least 64r + 1 away
+        for (long ring = 0; ring <= tileCount; ring++) {
+            searchRing(centerX, centerY, ring, best);
+            double reach = (double) ring * TILE_SIZE + 1;
+            if (best.cell != null && best.distance < reach * reach) {
+                return best.cell;
+            }
+        }
+        // The cells are far away, checking every tile is cheaper than more rings
+        for (Map.Entry<Long, TreeMap<Long, Tile>> row : tileRows.entrySet()) {
+            for (Map.Entry<Long, Tile> tile : row.getValue().entrySet()) {
+                best.scan(tile.getKey(), row.getKey(), tile.getValue());
+            }
+        }
+        return best.cell;
+    }
+
+    /**
+     * @param cell - Any cell of the tile
+     * @return - The number of indexed cells in the tile containing the cell
+     */
+    int tilePopulation(Cell cell) {
+        TreeMap<Long, Tile> row = tileRows.get(cell.y() >> TILE_SHIFT);
+        Tile tile = row == null ? null : row.get(cell.x() >> TILE_SHIFT);
+        return tile == null ? 0 : tile.population;
+    }
+
+    // Visit the tiles exactly ring tiles away from the center tile
+    private void searchRing(long centerX, long centerY, long ring, Nearest best) {
+        for (Map.Entry<Long, TreeMap<Long, Tile>> row : tileRows.subMap(centerY - ring, true, centerY + ring, true)
+                .entrySet()) {
+            long tileY = row.getKey();
+            if (tileY == centerY - ring || tileY == centerY + ring) {
+                for (Map.Entry<Long, Tile> tile : row.getValue().subMap(centerX - ring, true, centerX + ring, true)
+                        .entrySet()) {
+                    best.scan(tile.getKey(), tileY, tile.getValue());
+                }
+            } else {
+                Tile left = row.getValue().get(centerX - ring);
+                if (left != null) {
+                    best.scan(centerX - ring, tileY, left);
+                }
+                Tile right = ring == 0 ? null : row.getValue().get(centerX + ring);
+                if (right != null) {
+                    best.scan(centerX + ring, tileY, right);
+                }
+            }
+        }
+    }
+
+    private NavigableMap<Long, TreeMap<Long, Tile>> rowsIn(BoundingBox region) {
+        return tileRows.subMap(region.minY() >> TILE_SHIFT, true, region.maxY() >> TILE_SHIFT, true);
+    }
+
+    // The first row of a tile inside the region
+    private static int firstOffset(long min, long tile) {
+        return (min >> TILE_SHIFT) == tile ? (int) (min & TILE_MASK) : 0;
+    }
+
+    // The last row of a tile inside the region
+    private static int lastOffset(long max, long tile) {
+        return (max >> TILE_SHIFT) == tile ? (int) (max & TILE_MASK) : TILE_MASK;
+    }
+
+    // The bits of a tile row whose columns lie inside the region
+    private static long columnMask(BoundingBox region, long tileX) {
+        long mask = -1L << firstOffset(region.minX(), tileX);
+        return mask & (-1L >>> (TILE_MASK - lastOffset(region.maxX(), tileX)));
+    }
+
+    /**
+     * The best candidate found so far by a nearest cell search
+     */
+    private static class Nearest {
+        final long x;
+        final long y;
+        Cell cell;
+        double distance = Double.POSITIVE_INFINITY;
+
+        Nearest(long x, long y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        void scan(long tileX, long tileY, Tile tile) {
+            for (int offsetY = 0; offsetY < TILE_SIZE; offsetY++) {
+                long bits = tile.rows[offsetY];
+                long cellY = (tileY << TILE_SHIFT) + offsetY;
+                while (bits != 0) {
+                    long cellX = (tileX << TILE_SHIFT) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    // Differences in double so far apart coordinates cannot overflow
+                    double dx = (double) cellX - x;
+                    double dy = (double) cellY - y;
+                    double candidate = dx * dx + dy * dy;
+                    if (candidate < distance || (candidate == distance
+                            && (cellY < cell.y() || (cellY == cell.y() && cellX < cell.x())))) {
+                        cell = new Cell(cellX, cellY);
+                        distance = candidate;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveRunnerTest {
+
+    @Test
+    @DisplayName("The dense engine matches GameOfLife across tile edges and the edges of the board")
+
+    void bitTileEngine_RandomPatterns_MatchGameOfLife() {
+        EngineTestSupport.assertMatchesGameOfLife(new BitTileEngine(), EngineTestSupport.edgeSoup(36), 50);
+        EngineTestSupport.assertStableInputs(new BitTileEngine());
+    }
+
+    @Test
+    @DisplayName("The dense engine counts the cells that changed in each step")
+
+    void bitTileEngine_Step_CountsChanges() {
+        BitTileEngine dense = new BitTileEngine();
+        Set<Cell> previous = EngineTestSupport.edgeSoup(36);
+        for (int step = 0; step < 20; step++) {
+            Set<Cell> next = dense.getNextGeneration(previous);
+            Set<Cell> changed = new HashSet<>(next);
+            changed.addAll(previous);
+            Set<Cell> kept = new HashSet<>(next);
+            kept.retainAll(previous);
+            assertEquals(changed.size() - kept.size(), dense.getLastChanges(), "Changes should be counted");
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("A dense soup moves to the dense engine and still matches GameOfLife")
+
+    void advance_DenseSoup_SwitchesToDenseEngine() {
+        Set<Cell> start = EngineTestSupport.soup(37, 128, 0.5);
+        AdaptiveRunner runner = new AdaptiveRunner(start);
+
+        runner.advance(80);
+
+        assertEquals(EngineTestSupport.stepGameOfLife(start, 80), runner.getCells(), "The adaptive run should match GameOfLife");
+        assertEquals(80, runner.getGeneration(), "The runner should reach the target generation");
+        AdaptiveRunner.EngineSwitch first = runner.getSwitches().get(0);
+        assertEquals(AdaptiveRunner.Mode.DENSE, first.to(), "A dense soup should move to the dense engine");
+        assertTrue(first.reason().contains("density"), "The switch should give its reason");
+    }
+
+    @Test
+    @DisplayName("A settled pattern is handed to cycle detection and jumps far ahead")
+
+    void advance_Oscillator_JumpsThroughCycle() {
+        Set<Cell> blinkerAndBlock = Set.of(new Cell(0, 0), new Cell(1, 0), new Cell(2, 0),
+                new Cell(10, 10), new Cell(11, 10), new Cell(10, 11), new Cell(11, 11));
+        AdaptiveRunner runner = new AdaptiveRunner(blinkerAndBlock);
+
+        runner.advance(1_000_000_000_001L);
+
+        assertEquals(AdaptiveRunner.Mode.CYCLE, runner.getMode(), "A repeating pattern should be in cycle mode");
+        assertEquals(Set.of(new Cell(1, -1), new Cell(1, 0), new Cell(1, 1),
+                new Cell(10, 10), new Cell(11, 10), new Cell(10, 11), new Cell(11, 11)), runner.getCells(),
+                "An odd generation should have a vertical blinker");
+    }
+
+    @Test
+    @DisplayName("A pattern that never repeats leaves cycle mode and is not retried straight away")
+
+    void advance_Glider_LeavesCycleMode() {
+        Set<Cell> glider = Set.of(new Cell(1, 2), new Cell(2, 1), new Cell(0, 0), new Cell(1, 0), new Cell(2, 0));
+        Set<Cell> gliderAndBlock = new HashSet<>(glider);
+        gliderAndBlock.addAll(Set.of(new Cell(-20, 0), new Cell(-21, 0), new Cell(-20, 1), new Cell(-21, 1)));
+        AdaptiveRunner runner = new AdaptiveRunner(gliderAndBlock);
+
+        runner.advance(2000);
+
+        assertEquals(EngineTestSupport.stepGameOfLife(gliderAndBlock, 2000), runner.getCells(), "The adaptive run should match GameOfLife");
+        assertTrue(runner.getSwitches().stream().anyMatch(change -> change.from() == AdaptiveRunner.Mode.CYCLE),
+                "A glider moving away from a block never repeats, so cycle mode should be left");
+        assertFalse(runner.getSwitches().size() > 6, "Switches should not flip back and forth");
+    }
+
+    @Test
+    @DisplayName("Advancing a negative number of steps throws an exception")
+
+    void advance_NegativeSteps_ThrowsException() {
+        AdaptiveRunner runner = new AdaptiveRunner(Set.of(new Cell(0, 0)));
+
+        assertThrows(IllegalArgumentException.class, () -> runner.advance(-1));
+    }
+}
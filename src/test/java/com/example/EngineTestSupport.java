@@ -0,0 +1,89 @@
+package com.example;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Patterns and checks shared by the tests
+ */
+final class EngineTestSupport {
+
+    // A glider heading up and to the right
+    static final Set<Cell> GLIDER = Set.of(new Cell(1, 0), new Cell(2, -1),
+            new Cell(0, -2), new Cell(1, -2), new Cell(2, -2));
+
+    private EngineTestSupport() {
+    }
+
+    // A square of random cells with its corner at the origin
+    static Set<Cell> soup(long seed, int size, double density) {
+        Random random = new Random(seed);
+        Set<Cell> cells = new HashSet<>();
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                if (random.nextDouble() < density) {
+                    cells.add(new Cell(x, y));
+                }
+            }
+        }
+        return cells;
+    }
+
+    // The cells shifted by the given offsets
+    static Set<Cell> moved(Set<Cell> cells, long dx, long dy) {
+        Set<Cell> result = new HashSet<>();
+        for (Cell cell : cells) {
+            result.add(new Cell(cell.x() + dx, cell.y() + dy));
+        }
+        return result;
+    }
+
+    // A soup straddling the origin, with copies against two opposite corners of the board
+    static Set<Cell> edgeSoup(long seed) {
+        Set<Cell> cells = new HashSet<>();
+        for (Cell cell : soup(seed, 40, 0.4)) {
+            cells.add(new Cell(cell.x() - 20, cell.y() - 20));
+            cells.add(new Cell(Long.MAX_VALUE - cell.x(), Long.MIN_VALUE + cell.y()));
+            cells.add(new Cell(Long.MIN_VALUE + cell.x(), Long.MAX_VALUE - cell.y()));
+        }
+        return cells;
+    }
+
+    // The generation a number of steps on, found with GameOfLife
+    static Set<Cell> stepGameOfLife(Set<Cell> cells, int steps) {
+        GameOfLife game = new GameOfLife();
+        for (int step = 0; step < steps; step++) {
+            cells = game.getNextGeneration(cells);
+        }
+        return cells;
+    }
+
+    // Step an engine a generation at a time and then all at once, checking every generation against GameOfLife
+    static void assertMatchesGameOfLife(LifeEngine engine, Set<Cell> start, int steps) {
+        GameOfLife game = new GameOfLife();
+        Set<Cell> expected = start;
+        Set<Cell> actual = start;
+        for (int step = 0; step < steps; step++) {
+            expected = game.getNextGeneration(expected);
+            actual = engine.getNextGeneration(actual);
+            assertEquals(expected, actual, "Generation " + (step + 1) + " should match GameOfLife");
+        }
+        assertEquals(expected, engine.advance(start, steps), "Advancing at once should match stepping");
+    }
+
+    // Still lifes keep their cells, nothing steps to nothing and no steps hands back the input without losing track
+    static void assertStableInputs(LifeEngine engine) {
+        Set<Cell> block = Set.of(new Cell(0, 0), new Cell(1, 0), new Cell(0, 1), new Cell(1, 1));
+        Set<Cell> blinker = Set.of(new Cell(0, -1), new Cell(0, 0), new Cell(0, 1));
+
+        assertEquals(block, engine.advance(block, 1000), "A block should never change");
+        assertEquals(Set.of(), engine.getNextGeneration(new HashSet<>()), "Nothing should come from nothing");
+        Set<Cell> flipped = engine.advance(blinker, 1);
+        assertSame(block, engine.advance(block, 0), "No steps should hand back the input");
+        assertEquals(blinker, engine.advance(flipped, 1), "An earlier result should still step correctly");
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -17,6 +19,7 @@ import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.anySet;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.spy;
@@ -233,6 +236,28 @@ public class GameOfLifeTest {
         }
     }
 
+    @Test
+    @DisplayName("Printing is handed to the configured writer instead of the game loop")
+
+    void runGenerations_ConfiguredOutputWriter_GenerationsWrittenAsynchronously() {
+        Set<Cell> initialState = Set.of(new Cell(0, 0), new Cell(1, 0), new Cell(2, 0));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GenerationWriter writer = new GenerationWriter(new PrintStream(output), GenerationWriter.OverflowPolicy.BLOCK, 4,
+                false);
+        GameConfig config = new GameConfig(true, true, false).setOutput(writer);
+
+        try (MockedStatic<LifeHelpers> mockedHelpers = mockStatic(LifeHelpers.class)) {
+            game.runGenerations(4, initialState, config);
+
+            mockedHelpers.verify(() -> LifeHelpers.printGenerations(anySet()), never());
+            mockedHelpers.verify(() -> LifeHelpers.printGenerationGrid(anySet()), never());
+        }
+        writer.close();
+
+        assertEquals(3, writer.getWrittenFrames(), "Each computed generation should be handed to the writer");
+        assertTrue(output.toString().contains("Generation 3:"), "The last generation should be written");
+    }
+
     @Test
     @DisplayName("Error handling for generations equal to zero")
 
@@ -0,0 +1,104 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class GenerationStatsTest {
+
+    @Test
+    @DisplayName("Births and deaths of a blinker are counted each step")
+
+    void getNextGeneration_Blinker_BirthsAndDeathsCounted() {
+        GameOfLife game = new GameOfLife(new GenerationStats());
+        Set<Cell> blinker = Set.of(new Cell(0, 0), new Cell(1, 0), new Cell(2, 0));
+
+        game.getNextGeneration(blinker);
+
+        GenerationStats stats = game.getStats();
+        assertEquals(3, stats.getPopulation(), "A blinker always has three cells");
+        assertEquals(2, stats.getBirths(), "Two cells are born when a blinker turns");
+        assertEquals(2, stats.getDeaths(), "Two cells die when a blinker turns");
+        assertEquals(new BoundingBox(1, -1, 1, 1), stats.getBoundingBox(), "The blinker should now be vertical");
+    }
+
+    @Test
+    @DisplayName("Incremental stats match a full scan of every generation")
+
+    void getNextGeneration_RandomSoup_StatsMatchFullScan() {
+        Random random = new Random(27);
+        Set<Cell> generation = new HashSet<>();
+        for (int i = 0; i < 800; i++) {
+            generation.add(new Cell(random.nextInt(100) - 50, random.nextInt(100) - 50));
+        }
+        GameOfLife game = new GameOfLife(new GenerationStats());
+
+        for (int step = 0; step < 60; step++) {
+            generation = game.getNextGeneration(generation);
+
+            GenerationStats expected = new GenerationStats();
+            expected.reset(generation);
+            GenerationStats stats = game.getStats();
+            assertEquals(generation.size(), stats.getPopulation(), "Population should match the generation size");
+            assertEquals(BoundingBox.of(generation), stats.getBoundingBox(), "Bounding box should match a full scan");
+            assertArrayEquals(expected.getDensityHistogram(), stats.getDensityHistogram(),
+                    "Histogram should match a full scan");
+        }
+        assertEquals(60, game.getStats().getSteps(), "Every step should be tracked without a reset");
+    }
+
+    @Test
+    @DisplayName("Stats are rebuilt when stepping from a generation the engine did not produce")
+
+    void getNextGeneration_UnrelatedGeneration_StatsReset() {
+        GameOfLife game = new GameOfLife(new GenerationStats());
+        game.getNextGeneration(Set.of(new Cell(0, 0), new Cell(1, 0), new Cell(2, 0)));
+
+        Set<Cell> block = Set.of(new Cell(10, 10), new Cell(11, 10), new Cell(10, 11), new Cell(11, 11));
+        game.getNextGeneration(block);
+
+        assertEquals(4, game.getStats().getPopulation(), "Population should only count the block");
+        assertEquals(new BoundingBox(10, 10, 11, 11), game.getStats().getBoundingBox(),
+                "Bounding box should only cover the block");
+        assertEquals(1, game.getStats().getSteps(), "Step count should restart with the new generation");
+    }
+
+    @Test
+    @DisplayName("An empty generation has no bounding box and no density")
+
+    void getBoundingBox_EmptyGeneration_ReturnsNull() {
+        GameOfLife game = new GameOfLife(new GenerationStats());
+
+        game.getNextGeneration(Set.of(new Cell(0, 0)));
+
+        assertEquals(0, game.getStats().getPopulation(), "A single cell should die");
+        assertEquals(1, game.getStats().getDeaths(), "The single cell death should be counted");
+        assertNull(game.getStats().getBoundingBox(), "An empty generation has no bounding box");
+        assertEquals(0.0, game.getStats().getDensity(), "An empty generation has no density");
+    }
+
+    @Test
+    @DisplayName("Histogram buckets tiles by their population")
+
+    void getDensityHistogram_TilesOfDifferentSizes_BucketedByPopulation() {
+        GenerationStats stats = new GenerationStats();
+        Set<Cell> cells = new HashSet<>();
+        cells.add(new Cell(0, 0));
+        for (int x = 0; x < 5; x++) {
+            cells.add(new Cell(x + 1000, 0));
+        }
+
+        stats.reset(cells);
+
+        long[] histogram = stats.getDensityHistogram();
+        assertEquals(1, histogram[0], "A tile with one cell should land in the first bucket");
+        assertEquals(1, histogram[2], "A tile with five cells should land in the third bucket");
+    }
+}
@@ -0,0 +1,129 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GenerationWriterTest {
+
+    /**
+     * Output stream that holds up the writer thread until released
+     */
+    private static class GatedOutputStream extends OutputStream {
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) throws IOException {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.write(b);
+        }
+    }
+
+    @Test
+    @DisplayName("Every submitted generation is written when blocking")
+
+    void submit_BlockPolicy_AllGenerationsWritten() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GenerationWriter writer = new GenerationWriter(new PrintStream(output), GenerationWriter.OverflowPolicy.BLOCK, 2,
+                false);
+
+        for (int generation = 1; generation <= 20; generation++) {
+            writer.submit(generation, Set.of(new Cell(generation, 0)), true, false);
+        }
+        writer.close();
+
+        assertEquals(20, writer.getWrittenFrames(), "All generations should be written with the block policy");
+        assertEquals(0, writer.getDroppedFrames(), "No generations should be dropped with the block policy");
+        assertTrue(output.toString().contains("( 20 ,0 )"), "The last generation should be written");
+    }
+
+    @Test
+    @DisplayName("Generations are dropped rather than waiting on a slow writer")
+
+    void submit_DropPolicy_FullQueueDropsNewest() {
+        GatedOutputStream gated = new GatedOutputStream();
+        GenerationWriter writer = new GenerationWriter(new PrintStream(gated), GenerationWriter.OverflowPolicy.DROP, 1,
+                false);
+
+        int queued = 0;
+        for (int generation = 1; generation <= 10; generation++) {
+            if (writer.submit(generation, Set.of(new Cell(generation, 0)), true, false)) {
+                queued++;
+            }
+        }
+        gated.gate.countDown();
+        writer.close();
+
+        assertTrue(writer.getDroppedFrames() > 0, "Generations should be dropped while the writer is stuck");
+        assertEquals(queued, writer.getWrittenFrames(), "Every queued generation should be written");
+        assertEquals(10, writer.getWrittenFrames() + writer.getDroppedFrames(), "Each generation is written or dropped");
+    }
+
+    @Test
+    @DisplayName("Coalescing always keeps the newest generation")
+
+    void submit_CoalescePolicy_NewestGenerationWritten() {
+        GatedOutputStream gated = new GatedOutputStream();
+        GenerationWriter writer = new GenerationWriter(new PrintStream(gated), GenerationWriter.OverflowPolicy.COALESCE,
+                1, false);
+
+        for (int generation = 1; generation <= 10; generation++) {
+            assertTrue(writer.submit(generation, Set.of(new Cell(generation, 0)), true, false),
+                    "Coalescing should always accept the newest generation");
+        }
+        gated.gate.countDown();
+        writer.close();
+
+        assertTrue(writer.getDroppedFrames() > 0, "Older generations should be discarded while the writer is stuck");
+        assertTrue(gated.written.toString().contains("( 10 ,0 )"), "The newest generation should be written");
+    }
+
+    @Test
+    @DisplayName("A writer can target a file and skips the grid for empty generations")
+
+    void toFile_GridOfEmptyGeneration_FileWritten() throws IOException {
+        Path tempFile = Files.createTempFile("writer_output", ".txt");
+
+        try (GenerationWriter writer = GenerationWriter.toFile(tempFile, GenerationWriter.OverflowPolicy.BLOCK, 4)) {
+            writer.submit(1, Set.of(new Cell(0, 0), new Cell(1, 0)), false, true);
+            writer.submit(2, Set.of(), false, true);
+        }
+
+        String written = Files.readString(tempFile);
+        assertTrue(written.contains("Generation 1:"), "The first generation should be written to the file");
+        assertTrue(written.contains("X X"), "The grid should be written to the file");
+        assertTrue(written.contains("Generation 2:"), "An empty generation should still be written");
+        assertFalse(written.contains("Error"), "An empty generation should not produce an error");
+
+        Files.delete(tempFile);
+    }
+
+    @Test
+    @DisplayName("Submitting after close throws an exception")
+
+    void submit_AfterClose_ThrowsException() {
+        GenerationWriter writer = new GenerationWriter(new PrintStream(new ByteArrayOutputStream()),
+                GenerationWriter.OverflowPolicy.BLOCK, 1, false);
+        writer.close();
+
+        assertThrows(IllegalStateException.class, () -> writer.submit(1, Set.of(), true, false));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HistoryArchiveTest {
+
+    private Path tempFile;
+    private Set<Cell> soup;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempFile = Files.createTempFile("history", ".lhist");
+        Random random = new Random(30);
+        soup = new HashSet<>();
+        for (int i = 0; i < 600; i++) {
+            soup.add(new Cell(random.nextInt(60) - 30, random.nextInt(60) - 30));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    @DisplayName("Every generation of a recorded run can be loaded back")
+
+    void load_RecordedRun_GenerationsMatchRun() throws IOException {
+        List<Set<Cell>> generations = new ArrayList<>();
+        GameConfig config = new GameConfig(false, false, false)
+                .addListener((generation, cells) -> generations.add(cells));
+
+        try (HistoryRecorder recorder = new HistoryRecorder(tempFile, 16)) {
+            config.addListener(recorder);
+            new GameOfLife().runGenerations(100, soup, config);
+        }
+
+        try (HistoryArchive archive = HistoryArchive.open(tempFile)) {
+            assertEquals(0, archive.getFirstGeneration(), "The starting generation should be recorded");
+            assertEquals(99, archive.getLastGeneration(), "The last generation of the run should be recorded");
+            assertEquals(7, archive.getKeyframeCount(), "A keyframe should be written every 16 generations");
+            for (int generation : new int[] { 99, 0, 15, 16, 17, 50, 63, 64 }) {
+                assertEquals(generations.get(generation), archive.load(generation),
+                        "Generation " + generation + " should match the run");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A recorder given the engine's stats records the same run from its births and deaths")
+
+    void load_RecordedWithStats_GenerationsMatchRun() throws IOException {
+        List<Set<Cell>> generations = new ArrayList<>();
+        GenerationStats stats = new GenerationStats();
+        GameConfig config = new GameConfig(false, false, false)
+                .addListener((generation, cells) -> generations.add(cells));
+
+        try (HistoryRecorder recorder = new HistoryRecorder(tempFile, 16, stats)) {
+            config.addListener(recorder);
+            new GameOfLife(stats).runGenerations(100, soup, config);
+        }
+
+        try (HistoryArchive archive = HistoryArchive.open(tempFile)) {
+            for (int generation = 0; generation < 100; generation++) {
+                assertEquals(generations.get(generation), archive.load(generation),
+                        "Generation " + generation + " should match the run");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The archive is far smaller than storing every generation")
+
+    void record_LongRun_ArchiveSmallerThanGenerations() throws IOException {
+        long fullSize = 0;
+        try (HistoryRecorder recorder = new HistoryRecorder(tempFile)) {
+            Simulation simulation = new Simulation(soup);
+            for (int generation = 0; generation < 200; generation++) {
+                recorder.record(simulation.getGeneration(), simulation.getCells());
+                fullSize += simulation.getCells().size() * 16L; // Two longs per cell
+                simulation.advance(1);
+            }
+        }
+
+        assertTrue(Files.size(tempFile) * 10 < fullSize, "The archive should be a fraction of the full generations");
+    }
+
+    @Test
+    @DisplayName("An archive without its index is still readable")
+
+    void open_MissingIndex_RecordsScanned() throws IOException {
+        GameOfLife game = new GameOfLife();
+        Set<Cell> generation = soup;
+        HistoryRecorder recorder = new HistoryRecorder(tempFile, 8);
+        for (int i = 0; i < 30; i++) {
+            recorder.record(i, generation);
+            generation = game.getNextGeneration(generation);
+        }
+        long recordsEnd = recorder.getBytesWritten();
+        recorder.close();
+
+        // Cut off the index as if the recorder never got to close
+        byte[] contents = Files.readAllBytes(tempFile);
+        Files.write(tempFile, Arrays.copyOf(contents, (int) recordsEnd));
+
+        try (HistoryArchive archive = HistoryArchive.open(tempFile)) {
+            assertEquals(29, archive.getLastGeneration(), "Every record should be found by scanning");
+            assertEquals(game.advance(soup, 20), archive.load(20), "Generation 20 should load without an index");
+        }
+    }
+
+    @Test
+    @DisplayName("Gaps and generations outside the recording throw exceptions")
+
+    void load_UnrecordedGenerations_ThrowsException() throws IOException {
+        try (HistoryRecorder recorder = new HistoryRecorder(tempFile)) {
+            recorder.record(5, soup);
+            recorder.record(6, soup);
+            recorder.record(10, Set.of(new Cell(0, 0)));
+            assertThrows(IllegalArgumentException.class, () -> recorder.record(10, soup),
+                    "Recording the same generation twice should be rejected");
+        }
+
+        try (HistoryArchive archive = HistoryArchive.open(tempFile)) {
+            assertEquals(Set.of(new Cell(0, 0)), archive.load(10), "A generation after a gap should load");
+            assertEquals(soup, archive.load(6), "A generation before a gap should load");
+            assertThrows(IllegalArgumentException.class, () -> archive.load(4), "Before the recording");
+            assertThrows(IllegalArgumentException.class, () -> archive.load(8), "Inside a gap");
+            assertThrows(IllegalArgumentException.class, () -> archive.load(11), "After the recording");
+        }
+    }
+}
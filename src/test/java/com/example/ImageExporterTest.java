@@ -0,0 +1,118 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImageExporterTest {
+
+    private static int gray(BufferedImage image, int x, int y) {
+        return image.getRaster().getSample(x, y, 0);
+    }
+
+    @Test
+    @DisplayName("Cells are drawn as solid squares when zoomed in, highest row at the top")
+
+    void render_ZoomedIn_CellsDrawnAsSquares() {
+        Set<Cell> cells = Set.of(new Cell(0, 1), new Cell(1, 0));
+        ImageExporter exporter = new ImageExporter(20, 20);
+
+        BufferedImage image = exporter.render(cells);
+
+        // Two by two cells fit into 20 pixels at 10 pixels per cell
+        assertEquals(0, gray(image, 5, 5), "Cell (0, 1) should fill the top left square");
+        assertEquals(0, gray(image, 15, 15), "Cell (1, 0) should fill the bottom right square");
+        assertEquals(255, gray(image, 15, 5), "The empty top right square should be background");
+    }
+
+    @Test
+    @DisplayName("Zoomed out pixels are shaded by the share of living cells")
+
+    void render_ZoomedOut_PixelsShadedByDensity() {
+        Set<Cell> cells = new HashSet<>();
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 20; y++) {
+                cells.add(new Cell(x, y)); // Solid left half
+            }
+        }
+        cells.add(new Cell(19, 0)); // A lone cell in the bottom right
+        ImageExporter exporter = new ImageExporter(2, 2);
+
+        BufferedImage image = exporter.render(cells);
+
+        assertEquals(0, gray(image, 0, 0), "A pixel of only living cells should be black");
+        assertEquals(0, gray(image, 0, 1), "A pixel of only living cells should be black");
+        assertEquals(255, gray(image, 1, 0), "A pixel with no living cells should be background");
+        int lone = gray(image, 1, 1);
+        assertTrue(lone > 200 && lone < 255, "A pixel with one living cell should be a light gray, got " + lone);
+    }
+
+    @Test
+    @DisplayName("Cells far apart are binned without touching the empty area between them")
+
+    void render_HugeSparseViewport_BinnedQuickly() {
+        Set<Cell> cells = Set.of(new Cell(Long.MIN_VALUE, Long.MIN_VALUE), new Cell(Long.MAX_VALUE, Long.MAX_VALUE));
+        ImageExporter exporter = new ImageExporter(100, 100);
+
+        BufferedImage image = exporter.render(cells);
+
+        assertTrue(gray(image, 0, 99) < 255, "The lowest cell should be drawn in the bottom left corner");
+        assertTrue(gray(image, 99, 0) < 255, "The highest cell should be drawn in the top right corner");
+    }
+
+    @Test
+    @DisplayName("Cells outside the viewport are not drawn")
+
+    void render_CellsOutsideViewport_Skipped() {
+        Set<Cell> cells = Set.of(new Cell(0, 0), new Cell(50, 50));
+        ImageExporter exporter = new ImageExporter(4, 4);
+
+        BufferedImage image = exporter.render(cells, new BoundingBox(0, 0, 3, 3));
+
+        int drawn = 0;
+        for (int x = 0; x < 4; x++) {
+            for (int y = 0; y < 4; y++) {
+                drawn += gray(image, x, y) < 255 ? 1 : 0;
+            }
+        }
+        assertEquals(1, drawn, "Only the cell inside the viewport should be drawn");
+    }
+
+    @Test
+    @DisplayName("A sequence of frames is written as numbered PNG files")
+
+    void exportSequence_GliderFrames_PngFilesWritten() throws IOException {
+        Path directory = Files.createTempDirectory("frames");
+        GameOfLife game = new GameOfLife();
+        List<Set<Cell>> frames = new ArrayList<>();
+        Set<Cell> glider = Set.of(new Cell(1, 2), new Cell(2, 1), new Cell(0, 0), new Cell(1, 0), new Cell(2, 0));
+        for (int i = 0; i < 8; i++) {
+            frames.add(glider);
+            glider = game.getNextGeneration(glider);
+        }
+
+        List<Path> files = new ImageExporter(64, 48, 4).exportSequence(frames, null, directory);
+
+        assertEquals(8, files.size(), "One file should be written per frame");
+        for (Path file : files) {
+            BufferedImage image = ImageIO.read(file.toFile());
+            assertEquals(64, image.getWidth(), "Frames should have the requested width");
+            assertEquals(48, image.getHeight(), "Frames should have the requested height");
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+}
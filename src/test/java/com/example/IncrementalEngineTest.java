@@ -0,0 +1,50 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class IncrementalEngineTest {
+
+    @Test
+    @DisplayName("Stepping a soup and the corners of the board matches GameOfLife every generation")
+
+    void getNextGeneration_RandomPatterns_MatchGameOfLife() {
+        EngineTestSupport.assertMatchesGameOfLife(new IncrementalEngine(), EngineTestSupport.edgeSoup(38), 100);
+        EngineTestSupport.assertStableInputs(new IncrementalEngine());
+    }
+
+    @Test
+    @DisplayName("Stepping from a set the engine did not return counts the neighbours again")
+
+    void getNextGeneration_OtherInput_Rebuilds() {
+        Set<Cell> blinker = Set.of(new Cell(0, -1), new Cell(0, 0), new Cell(0, 1));
+        IncrementalEngine engine = new IncrementalEngine();
+        GameOfLife game = new GameOfLife();
+
+        Set<Cell> flipped = engine.getNextGeneration(blinker);
+        assertEquals(game.getNextGeneration(blinker), flipped, "The blinker should flip");
+        assertEquals(game.getNextGeneration(EngineTestSupport.GLIDER),
+                engine.getNextGeneration(EngineTestSupport.GLIDER),
+                "A different pattern should be stepped from its own counts");
+        assertEquals(blinker, engine.getNextGeneration(flipped), "An earlier output should still step correctly");
+    }
+
+    @Test
+    @DisplayName("A simulation on this engine still finds cycles and jumps through them")
+
+    void simulation_Blinker_JumpsThroughCycle() {
+        Set<Cell> blinker = Set.of(new Cell(0, -1), new Cell(0, 0), new Cell(0, 1));
+        Simulation simulation = new Simulation(blinker, new IncrementalEngine(), Simulation.DEFAULT_MAX_PERIOD);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> simulation.advance(10_000_000_000L));
+
+        assertEquals(2, simulation.getPeriod(), "The blinker should be found to have period 2");
+        assertEquals(blinker, simulation.getCells(), "An even number of generations should give the same phase");
+    }
+}
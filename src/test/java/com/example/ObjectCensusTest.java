@@ -0,0 +1,125 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ObjectCensusTest {
+
+    // A plain flood fill, joining cells within two cells of each other on both axes
+    private static int countObjects(Set<Cell> cells) {
+        Set<Cell> unvisited = new HashSet<>(cells);
+        int objects = 0;
+        while (!unvisited.isEmpty()) {
+            objects++;
+            Deque<Cell> queue = new ArrayDeque<>();
+            Cell start = unvisited.iterator().next();
+            unvisited.remove(start);
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                Cell cell = queue.poll();
+                for (long dx = -2; dx <= 2; dx++) {
+                    for (long dy = -2; dy <= 2; dy++) {
+                        Cell near = new Cell(cell.x() + dx, cell.y() + dy);
+                        if (unvisited.remove(near)) {
+                            queue.add(near);
+                        }
+                    }
+                }
+            }
+        }
+        return objects;
+    }
+
+    @Test
+    @DisplayName("Common objects get the codes soup searches use in any orientation and phase")
+
+    void classify_KnownObjects_StandardCodes() {
+        Set<Cell> block = Set.of(new Cell(0, 0), new Cell(1, 0), new Cell(0, 1), new Cell(1, 1));
+        Set<Cell> beehive = Set.of(new Cell(1, 0), new Cell(0, 1), new Cell(2, 1), new Cell(0, 2), new Cell(2, 2),
+                new Cell(1, 3));
+        Set<Cell> blinker = Set.of(new Cell(5, 5), new Cell(6, 5), new Cell(7, 5));
+
+        assertEquals("xs4_33", ObjectCensus.classify(block), "A block should be xs4_33");
+        assertEquals("xs6_696", ObjectCensus.classify(EngineTestSupport.moved(beehive, -1000, 77)),
+                "A beehive should be xs6_696");
+        assertEquals("xp2_7", ObjectCensus.classify(blinker), "Either phase of a blinker should be xp2_7");
+        assertEquals("xq4_153", ObjectCensus.classify(EngineTestSupport.GLIDER), "A glider should be xq4_153");
+        assertEquals("xq4_153", ObjectCensus.classify(new GameOfLife().getNextGeneration(EngineTestSupport.GLIDER)),
+                "Another phase of the glider should get the same code");
+        assertEquals("block", ObjectCensus.nameOf("xs4_33"), "Known objects should have names");
+        assertEquals("glider", ObjectCensus.nameOf("xq4_153"), "Known objects should have names");
+    }
+
+    @Test
+    @DisplayName("A field of scattered objects is counted by kind")
+
+    void take_ScatteredObjects_CountedByKind() {
+        Set<Cell> block = Set.of(new Cell(0, 0), new Cell(1, 0), new Cell(0, 1), new Cell(1, 1));
+        Set<Cell> blinker = Set.of(new Cell(0, 0), new Cell(0, 1), new Cell(0, 2));
+        Set<Cell> field = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            field.addAll(EngineTestSupport.moved(block, i * 10L, 0));
+            field.addAll(EngineTestSupport.moved(blinker, i * 10L, 20));
+            if (i % 5 == 0) {
+                field.addAll(EngineTestSupport.moved(EngineTestSupport.GLIDER, i * 10L, 40));
+            }
+        }
+        field.addAll(EngineTestSupport.moved(block, Long.MAX_VALUE - 1, Long.MIN_VALUE)); // A corner of the board
+
+        try (ObjectCensus objectCensus = new ObjectCensus(4)) {
+            ObjectCensus.Census census = objectCensus.take(field);
+
+            assertEquals(51, census.getCount("xs4_33"), "Every block should be counted");
+            assertEquals(50, census.getCount("xp2_7"), "Every blinker should be counted");
+            assertEquals(10, census.getCount("xq4_153"), "Every glider should be counted");
+            assertEquals(111, census.getObjects(), "Every object should be found");
+            assertEquals(field.size(), census.getCells(), "Every cell should be counted");
+            assertEquals("xs4_33", census.getCounts().keySet().iterator().next(),
+                    "The most common should be first");
+        }
+    }
+
+    @Test
+    @DisplayName("The debris of a settled soup splits into the same objects as a flood fill")
+
+    void take_SettledSoup_MatchesFloodFill() {
+        Set<Cell> soup = EngineTestSupport.soup(41, 64, 0.5);
+        AdaptiveRunner runner = new AdaptiveRunner(soup);
+        runner.advance(3000);
+        Set<Cell> ash = runner.getCells();
+
+        try (ObjectCensus objectCensus = new ObjectCensus(3)) {
+            ObjectCensus.Census census = objectCensus.take(ash);
+
+            assertEquals(countObjects(ash), census.getObjects(), "The objects should match a flood fill");
+            long counted = 0;
+            for (Map.Entry<String, Long> entry : census.getCounts().entrySet()) {
+                counted += entry.getValue();
+                assertTrue(entry.getKey().matches("(xs|xp|xq|xx|ov)\\d*_[0-9a-z]*"),
+                        entry.getKey() + " should be a code");
+            }
+            assertEquals(census.getObjects(), counted, "Every object should be tallied once");
+        }
+    }
+
+    @Test
+    @DisplayName("Empty generations have no objects and invalid thread counts throw an exception")
+
+    void take_EdgeCases_Handled() {
+        try (ObjectCensus objectCensus = new ObjectCensus(1)) {
+            assertEquals(0, objectCensus.take(Set.of()).getObjects(), "Nothing should be found in nothing");
+        }
+        assertEquals("xx_1", ObjectCensus.classify(Set.of(new Cell(0, 0))), "A lone cell dies out");
+        assertThrows(IllegalArgumentException.class, () -> new ObjectCensus(0));
+    }
+}
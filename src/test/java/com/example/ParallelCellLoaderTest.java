@@ -0,0 +1,125 @@
+package com.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelCellLoaderTest {
+
+    private PrintStream originalErr;
+    private ByteArrayOutputStream errorOutput;
+
+    @BeforeEach
+    void captureErrors() {
+        originalErr = System.err;
+        errorOutput = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(errorOutput));
+    }
+
+    @AfterEach
+    void restoreErrors() {
+        System.setErr(originalErr);
+    }
+
+    @Test
+    @DisplayName("A file split across threads loads the same cells and errors as the sequential reader")
+
+    void load_LargeFileManyChunks_MatchesSequentialReader() throws IOException {
+        Path tempFile = Files.createTempFile("large_life", ".txt");
+        Random random = new Random(29);
+        StringBuilder contents = new StringBuilder("#Life 1.06\n");
+        for (int line = 0; line < 400_000; line++) {
+            if (line % 50_000 == 7) {
+                contents.append("invalid data ").append(line).append('\n');
+            } else if (line % 50_000 == 11) {
+                contents.append(line).append(" x\r\n");
+            } else if (line % 1000 == 3) {
+                contents.append("# comment\n\n");
+            } else {
+                // Small range so there are plenty of duplicates to remove
+                contents.append(random.nextInt(2000) - 1000).append(' ').append(random.nextInt(400) - 200).append('\n');
+            }
+        }
+        Files.writeString(tempFile, contents);
+
+        Set<Cell> expected = LifeHelpers.getCellsFromFile(tempFile.toString());
+        String expectedErrors = errorOutput.toString();
+        errorOutput.reset();
+
+        Set<Cell> cells = new ParallelCellLoader(4).load(tempFile.toString());
+
+        assertEquals(expected, cells, "The parallel loader should find the same cells");
+        assertEquals(expectedErrors, errorOutput.toString(), "Invalid lines should be reported the same way and order");
+        assertTrue(expectedErrors.contains("Invalid coordinates: 50011 x"), "Invalid coordinates should be reported");
+
+        Files.delete(tempFile);
+    }
+
+    @Test
+    @DisplayName("Unusual lines are handled the same way as the sequential reader")
+
+    void load_UnusualLines_MatchesSequentialReader() throws IOException {
+        Path tempFile = Files.createTempFile("unusual_life", ".txt");
+        Files.writeString(tempFile, "#Life 1.06\r\n  +3\t-4  \r\n9223372036854775807 -9223372036854775808\n"
+                + "9223372036854775808 0\n1 2 3\n5\r6 7\n\n# done");
+
+        Set<Cell> expected = LifeHelpers.getCellsFromFile(tempFile.toString());
+        String expectedErrors = errorOutput.toString();
+        errorOutput.reset();
+
+        Set<Cell> cells = new ParallelCellLoader(2).load(tempFile.toString());
+
+        assertEquals(expected, cells, "The parallel loader should find the same cells");
+        assertEquals(expectedErrors, errorOutput.toString(), "Invalid lines should be reported the same way");
+        assertTrue(cells.contains(new Cell(Long.MAX_VALUE, Long.MIN_VALUE)), "Extreme coordinates should be read");
+
+        Files.delete(tempFile);
+    }
+
+    @Test
+    @DisplayName("A file missing the header throws an exception")
+
+    void load_FileMissingHeader_ThrowsException() throws IOException {
+        Path tempFile = Files.createTempFile("missing_header", ".txt");
+        Files.writeString(tempFile, "0 0\n1 1\n");
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new ParallelCellLoader().load(tempFile.toString()));
+
+        assertTrue(exception.getMessage().contains("Invalid file format"), "Expected invalid format exception.");
+
+        Files.delete(tempFile);
+    }
+
+    @Test
+    @DisplayName("An empty file throws an exception")
+
+    void load_EmptyFile_ThrowsException() throws IOException {
+        Path tempFile = Files.createTempFile("empty_file", ".txt");
+
+        assertThrows(IllegalArgumentException.class, () -> new ParallelCellLoader().load(tempFile.toString()));
+
+        Files.delete(tempFile);
+    }
+
+    @Test
+    @DisplayName("A missing file throws a file not found exception")
+
+    void load_MissingFile_ThrowsFileNotFound() {
+        assertThrows(FileNotFoundException.class, () -> new ParallelCellLoader().load("does/not/exist.txt"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PatternIOTest {
+
+    @Test
+    @DisplayName("An RLE glider is read with its top row at y = 0")
+
+    void rleRead_Glider_CellsRead() throws IOException {
+        String rle = "#N Glider\n#C A comment\nx = 3, y = 3, rule = B3/S23\nbo$2bo$\n3o!\n";
+
+        assertEquals(EngineTestSupport.GLIDER, RleFormat.read(new StringReader(rle)), "The glider should be read");
+    }
+
+    @Test
+    @DisplayName("A Macrocell glider is read centered on the origin")
+
+    void macrocellRead_Glider_CellsRead() throws IOException {
+        String macrocell = "[M2] (golly 4.2)\n#R B3/S23\n.*$..*$***$\n4 0 0 0 1\n";
+
+        assertEquals(EngineTestSupport.GLIDER, MacrocellFormat.read(new StringReader(macrocell)),
+                "The glider should be read");
+    }
+
+    @Test
+    @DisplayName("Patterns written in every format read back unchanged")
+
+    void writeRead_AllFormats_RoundTrip() throws IOException {
+        Set<Cell> cells = EngineTestSupport.moved(EngineTestSupport.soup(37, 300, 0.022), -150, -150);
+        cells.add(new Cell(Long.MAX_VALUE, Long.MIN_VALUE));
+        cells.add(new Cell(Long.MIN_VALUE, Long.MAX_VALUE));
+
+        for (PatternFormat format : PatternFormat.values()) {
+            Path file = Files.createTempFile("pattern", format == PatternFormat.RLE ? ".rle"
+                    : format == PatternFormat.MACROCELL ? ".mc" : ".lif");
+            PatternIO.write(cells, file);
+
+            assertEquals(format, PatternIO.detect(file), "The extension should give the format");
+            assertEquals(cells, PatternIO.read(file), format + " should read back the same cells");
+
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("A large regular pattern is much smaller as RLE and Macrocell")
+
+    void write_RegularPattern_SmallerThanLife106() throws IOException {
+        Set<Cell> blocks = new HashSet<>();
+        for (int x = 0; x < 512; x += 4) {
+            for (int y = 0; y < 512; y += 4) {
+                blocks.add(new Cell(x, y));
+                blocks.add(new Cell(x + 1, y));
+                blocks.add(new Cell(x, y + 1));
+                blocks.add(new Cell(x + 1, y + 1));
+            }
+        }
+        StringWriter life = new StringWriter();
+        StringWriter rle = new StringWriter();
+        StringWriter macrocell = new StringWriter();
+        for (Cell cell : blocks) {
+            life.write(cell.x() + " " + cell.y() + "\n");
+        }
+        RleFormat.write(blocks, rle);
+        MacrocellFormat.write(blocks, macrocell);
+
+        assertTrue(rle.toString().length() * 3 < life.toString().length(), "RLE should be a fraction of the size");
+        assertTrue(macrocell.toString().length() * 1000 < life.toString().length(),
+                "Repeated blocks should only be stored once in Macrocell");
+        assertEquals(blocks, MacrocellFormat.read(new StringReader(macrocell.toString())),
+                "The Macrocell pattern should read back unchanged");
+        assertEquals(blocks, RleFormat.read(new StringReader(rle.toString())),
+                "The RLE pattern should read back unchanged");
+    }
+
+    @Test
+    @DisplayName("Files without a pattern extension are recognised from their contents")
+
+    void detect_TxtFiles_FormatSniffed() throws IOException {
+        Path rle = Files.createTempFile("glider", ".txt");
+        Files.writeString(rle, "#N Glider\nx = 3, y = 3\nbo$2bo$3o!\n");
+        Path life = Files.createTempFile("glider", ".txt");
+        Files.writeString(life, "#Life 1.06\n0 0\n");
+        Path unknown = Files.createTempFile("unknown", ".txt");
+        Files.writeString(unknown, "hello\n");
+
+        assertEquals(EngineTestSupport.GLIDER, PatternIO.read(rle), "RLE contents should be recognised");
+        assertEquals(Set.of(new Cell(0, 0)), PatternIO.read(life), "Life 1.06 contents should be recognised");
+        assertThrows(IllegalArgumentException.class, () -> PatternIO.read(unknown));
+
+        Files.delete(rle);
+        Files.delete(life);
+        Files.delete(unknown);
+    }
+
+    @Test
+    @DisplayName("The largest unsigned number is read back and a missing number throws an exception")
+
+    void readNumber_LargestAndMissing_ReadOrThrown() throws IOException {
+        PatternIO.CharSource largest = new PatternIO.CharSource(new StringReader("18446744073709551615b"));
+        PatternIO.CharSource missing = new PatternIO.CharSource(new StringReader("b"));
+
+        assertEquals(-1L, largest.readNumber(), "2^64 - 1 should be read as its unsigned bit pattern");
+        assertEquals('b', largest.read(), "Reading should stop after the digits");
+        assertThrows(IllegalArgumentException.class, missing::readNumber);
+        assertThrows(IllegalArgumentException.class,
+                () -> MacrocellFormat.read(new StringReader("[M2]\n.*$\n4294967300 1 0 0 0\n")));
+    }
+
+    @Test
+    @DisplayName("Patterns for other rules throw an exception")
+
+    void read_OtherRule_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RleFormat.read(new StringReader("x = 1, y = 1, rule = B36/S23\no!")));
+        assertThrows(IllegalArgumentException.class,
+                () -> MacrocellFormat.read(new StringReader("[M2]\n#R B36/S23\n*$\n")));
+    }
+}
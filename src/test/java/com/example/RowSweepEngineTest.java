@@ -0,0 +1,35 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RowSweepEngineTest {
+
+    @Test
+    @DisplayName("Stepping a soup and the corners of the board matches GameOfLife every generation")
+
+    void getNextGeneration_RandomPatterns_MatchGameOfLife() {
+        EngineTestSupport.assertMatchesGameOfLife(new RowSweepEngine(), EngineTestSupport.edgeSoup(39), 100);
+        EngineTestSupport.assertStableInputs(new RowSweepEngine());
+    }
+
+    @Test
+    @DisplayName("A long line with gaps is stepped from its neighbouring rows")
+
+    void advance_LongLine_MatchesGameOfLife() {
+        Set<Cell> line = new HashSet<>();
+        for (int x = 0; x < 5000; x++) {
+            if (x % 9 != 0) {
+                line.add(new Cell(x, 0));
+            }
+        }
+
+        assertEquals(EngineTestSupport.stepGameOfLife(line, 20), new RowSweepEngine().advance(line, 20),
+                "The line should match GameOfLife");
+    }
+}
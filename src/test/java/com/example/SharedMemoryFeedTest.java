@@ -0,0 +1,163 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SharedMemoryFeedTest {
+
+    // A frame whose every cell records the generation it belongs to
+    private static Set<Cell> marked(long generation, int size) {
+        Set<Cell> cells = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            cells.add(new Cell(i, generation));
+        }
+        return cells;
+    }
+
+    @Test
+    @DisplayName("A run publishes every generation for a reader to map and read")
+
+    void runGenerations_FeedListener_ReaderSeesGenerations() throws IOException {
+        Path file = Files.createTempFile("feed", ".bin");
+        file.toFile().deleteOnExit(); // A mapped file cannot be deleted on every platform until it is unmapped
+        Set<Cell> blinker = Set.of(new Cell(0, -1), new Cell(0, 0), new Cell(0, 1));
+        try (SharedMemoryFeed feed = new SharedMemoryFeed(file, 8, 16);
+                SharedMemoryFeed.Reader reader = new SharedMemoryFeed.Reader(file)) {
+            assertNull(reader.next(), "Nothing should be read before the run");
+            new GameOfLife().runGenerations(4, blinker, new GameConfig(false, false, false).addListener(feed));
+
+            Set<Cell> expected = blinker;
+            for (int generation = 0; generation < 4; generation++) {
+                SharedMemoryFeed.Frame frame = reader.next();
+                assertEquals(generation, frame.generation(), "Frames should arrive in order");
+                assertEquals(expected, frame.cells(), "Generation " + generation + " should be read back");
+                assertEquals(0, frame.missed(), "No frames should be missed");
+                expected = new GameOfLife().getNextGeneration(expected);
+            }
+            assertNull(reader.next(), "Every frame should have been read");
+        }
+    }
+
+    @Test
+    @DisplayName("A reader that falls behind skips to the oldest frame held and counts what it missed")
+
+    void next_ReaderFallsBehind_MissedFramesReported() throws IOException {
+        Path file = Files.createTempFile("feed", ".bin");
+        file.toFile().deleteOnExit(); // A mapped file cannot be deleted on every platform until it is unmapped
+        try (SharedMemoryFeed feed = new SharedMemoryFeed(file, 4, 8);
+                SharedMemoryFeed.Reader reader = new SharedMemoryFeed.Reader(file)) {
+            for (long generation = 0; generation < 10; generation++) {
+                feed.onGeneration(generation, marked(generation, 3));
+            }
+
+            SharedMemoryFeed.Frame frame = reader.next();
+            assertEquals(7, frame.sequence(), "The oldest frame still held should be read");
+            assertEquals(6, frame.missed(), "The overwritten frames should be reported");
+            assertEquals(marked(6, 3), frame.cells(), "The frame should hold its own generation");
+
+            feed.onGeneration(10, marked(10, 3));
+            assertEquals(10, reader.latest().generation(), "Latest should jump to the newest frame");
+            assertEquals(9, reader.getMissed(), "Skipped frames should add to the total missed");
+        }
+    }
+
+    @Test
+    @DisplayName("Generations larger than a slot are stored in part and marked as truncated")
+
+    void onGeneration_TooManyCells_Truncated() throws IOException {
+        Path file = Files.createTempFile("feed", ".bin");
+        file.toFile().deleteOnExit(); // A mapped file cannot be deleted on every platform until it is unmapped
+        try (SharedMemoryFeed feed = new SharedMemoryFeed(file, 2, 4);
+                SharedMemoryFeed.Reader reader = new SharedMemoryFeed.Reader(file)) {
+            feed.onGeneration(0, marked(0, 10));
+
+            SharedMemoryFeed.Frame frame = reader.next();
+            assertEquals(10, frame.population(), "The full population should be recorded");
+            assertEquals(4, frame.cells().size(), "Only a slot of cells should be stored");
+            assertTrue(frame.isTruncated(), "The frame should be marked as truncated");
+        }
+    }
+
+    @Test
+    @DisplayName("Frames read while the writer keeps overwriting the ring are never torn")
+
+    void next_ConcurrentWriter_FramesConsistent() throws Exception {
+        Path file = Files.createTempFile("feed", ".bin");
+        file.toFile().deleteOnExit(); // A mapped file cannot be deleted on every platform until it is unmapped
+        try (SharedMemoryFeed feed = new SharedMemoryFeed(file, 2, 64);
+                SharedMemoryFeed.Reader reader = new SharedMemoryFeed.Reader(file)) {
+            Thread writer = new Thread(() -> {
+                for (long generation = 0; generation < 20_000; generation++) {
+                    feed.onGeneration(generation, marked(generation, 1 + (int) (generation % 64)));
+                }
+            });
+            writer.start();
+            long read = 0;
+            while (writer.isAlive() || reader.latestSequence() > read) {
+                SharedMemoryFeed.Frame frame = reader.next();
+                if (frame != null) {
+                    assertEquals(marked(frame.generation(), 1 + (int) (frame.generation() % 64)), frame.cells(),
+                            "Frame " + frame.sequence() + " should not mix cells from different generations");
+                    read = frame.sequence();
+                }
+            }
+            writer.join();
+            assertEquals(20_000, read, "The last frame should be read");
+        }
+    }
+
+    @Test
+    @DisplayName("A slot left half written by a stopped writer is skipped instead of retried forever")
+
+    void next_WriterStoppedMidFrame_SlotSkipped() throws IOException {
+        Path file = Files.createTempFile("feed", ".bin");
+        file.toFile().deleteOnExit(); // A mapped file cannot be deleted on every platform until it is unmapped
+        try (SharedMemoryFeed feed = new SharedMemoryFeed(file, 2, 8);
+                SharedMemoryFeed.Reader reader = new SharedMemoryFeed.Reader(file);
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            for (long generation = 0; generation < 3; generation++) {
+                feed.onGeneration(generation, marked(generation, 3));
+            }
+            // Frame 4 was started in the slot of frame 2 and never finished
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int slotSize = SharedMemoryFeed.SLOT_HEADER_SIZE + 8 * SharedMemoryFeed.CELL_SIZE;
+            buffer.putLong(SharedMemoryFeed.HEADER_SIZE + slotSize, 2 * 4 - 1);
+
+            SharedMemoryFeed.Frame frame = assertTimeoutPreemptively(Duration.ofSeconds(5), reader::next);
+            assertEquals(3, frame.sequence(), "The frame after the broken slot should be read");
+            assertEquals(2, frame.missed(), "The broken frame should be counted as missed");
+            assertNull(reader.next(), "No further frames should be found");
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid feeds and files that are not feeds throw an exception")
+
+    void feed_InvalidInput_ThrowsException() throws IOException {
+        Path file = Files.createTempFile("feed", ".bin");
+        file.toFile().deleteOnExit(); // A mapped file cannot be deleted on every platform until it is unmapped
+        Files.writeString(file, "not a feed, just some text that is long enough to hold a header of 64 bytes");
+
+        assertThrows(IllegalArgumentException.class, () -> new SharedMemoryFeed.Reader(file));
+        assertThrows(IllegalArgumentException.class, () -> new SharedMemoryFeed(file, 0, 8));
+        assertThrows(IllegalArgumentException.class, () -> new SharedMemoryFeed(file, 64, Integer.MAX_VALUE / 8));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimulationTest {
+
+    private static final Set<Cell> BLINKER = Set.of(new Cell(0, 0), new Cell(1, 0), new Cell(2, 0));
+    private static final Set<Cell> GLIDER = Set.of(
+            new Cell(1, 2),
+            new Cell(2, 1),
+            new Cell(0, 0), new Cell(1, 0), new Cell(2, 0));
+
+    @Test
+    @DisplayName("Advancing takes exactly the requested number of steps")
+
+    void advance_SmallNumberOfSteps_MatchesPlainStepping() {
+        Simulation simulation = new Simulation(GLIDER);
+        GameOfLife game = new GameOfLife();
+
+        long reached = simulation.advance(7);
+
+        assertEquals(7, reached, "Seven steps from generation zero should reach generation seven");
+        assertEquals(game.advance(GLIDER, 7), simulation.getCells(), "Cells should match seven plain steps");
+    }
+
+    @Test
+    @DisplayName("An oscillator is fast forwarded to generations far beyond the int range")
+
+    void advance_BlinkerPastIntRange_CycleFastForwarded() {
+        Simulation simulation = new Simulation(BLINKER);
+
+        long reached = simulation.advance(10_000_000_001L);
+
+        assertEquals(10_000_000_001L, reached, "The exact generation index should be reported");
+        assertEquals(2, simulation.getPeriod(), "The blinker should be detected as period two");
+        assertEquals(new GameOfLife().getNextGeneration(BLINKER), simulation.getCells(),
+                "An odd generation of a blinker should be vertical");
+    }
+
+    @Test
+    @DisplayName("A spaceship is fast forwarded and translated by its velocity")
+
+    void advance_GliderManyGenerations_CellsTranslated() {
+        Simulation simulation = new Simulation(GLIDER);
+
+        simulation.advance(4_000_000_000L);
+
+        // A glider moves one cell diagonally every four generations
+        Set<Cell> expected = new HashSet<>();
+        for (Cell cell : GLIDER) {
+            expected.add(new Cell(cell.x() + 1_000_000_000L, cell.y() - 1_000_000_000L));
+        }
+        assertEquals(expected, simulation.getCells(), "The glider should have moved one billion cells");
+        assertEquals(4, simulation.getPeriod(), "The glider should be detected as period four");
+    }
+
+    @Test
+    @DisplayName("Advancing in several calls lands on the same state as one call")
+
+    void advanceTo_SeveralCalls_SameAsSingleCall() {
+        Simulation once = new Simulation(GLIDER);
+        Simulation inParts = new Simulation(GLIDER);
+
+        once.advanceTo(1_000_003);
+        inParts.advance(10);
+        inParts.advance(500_000);
+        inParts.advanceTo(1_000_003);
+
+        assertEquals(once.getGeneration(), inParts.getGeneration(), "Both should reach the same generation");
+        assertEquals(once.getCells(), inParts.getCells(), "Both should hold the same cells");
+    }
+
+    @Test
+    @DisplayName("A macro stepping engine is used for long jumps")
+
+    void advance_MacroSteppingEngine_AdvanceCalledOnce() {
+        int[] advanceCalls = { 0 };
+        LifeEngine engine = new LifeEngine() {
+            @Override
+            public Set<Cell> getNextGeneration(Set<Cell> aliveCells) {
+                throw new IllegalStateException("Single steps should not be taken");
+            }
+
+            @Override
+            public Set<Cell> advance(Set<Cell> aliveCells, long steps) {
+                advanceCalls[0]++;
+                return aliveCells;
+            }
+
+            @Override
+            public boolean isMacroStepping() {
+                return true;
+            }
+        };
+        Simulation simulation = new Simulation(BLINKER, engine, Simulation.DEFAULT_MAX_PERIOD);
+
+        assertEquals(1L << 40, simulation.advance(1L << 40), "The requested generation should be reached");
+        assertEquals(1, advanceCalls[0], "The jump should be made in a single call to the engine");
+    }
+
+    @Test
+    @DisplayName("A glider heading for the edge of the board is not jumped past the edge")
+
+    void advance_GliderNearEdge_StepsNearTheEdge() {
+        Set<Cell> nearEdge = new HashSet<>();
+        for (Cell cell : GLIDER) {
+            nearEdge.add(new Cell(Long.MAX_VALUE - 40 + cell.x(), cell.y()));
+        }
+        Simulation simulation = new Simulation(nearEdge);
+
+        simulation.advance(400);
+
+        for (Cell cell : simulation.getCells()) {
+            assertTrue(cell.x() > 0, "No cell should wrap past the edge of the board");
+        }
+        assertEquals(new GameOfLife().advance(nearEdge, 400), simulation.getCells(),
+                "Cells should match plain stepping near the edge");
+    }
+
+    @Test
+    @DisplayName("Invalid steps throw exceptions")
+
+    void advance_InvalidSteps_ThrowsException() {
+        Simulation simulation = new Simulation(BLINKER);
+        simulation.advance(5);
+
+        assertThrows(IllegalArgumentException.class, () -> simulation.advance(-1),
+                "Negative steps should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> simulation.advanceTo(4),
+                "Moving backwards should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> simulation.advance(Long.MAX_VALUE),
+                "Overflowing the generation index should be rejected");
+    }
+}
@@ -0,0 +1,95 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SnapshotPublisherTest {
+
+    @Test
+    @DisplayName("Nothing is published before a run starts")
+
+    void latest_BeforeRun_ReturnsNull() {
+        assertNull(new SnapshotPublisher().latest(), "No snapshot should exist before the first generation");
+    }
+
+    @Test
+    @DisplayName("The last generation of a run is published")
+
+    void runGenerations_WithPublisher_LastGenerationPublished() {
+        SnapshotPublisher publisher = new SnapshotPublisher();
+        Set<Cell> blinker = Set.of(new Cell(0, 0), new Cell(1, 0), new Cell(2, 0));
+
+        Set<Cell> result = new GameOfLife().runGenerations(4, blinker,
+                new GameConfig(false, false, false).addListener(publisher));
+
+        GenerationSnapshot snapshot = publisher.latest();
+        assertEquals(3, snapshot.getGeneration(), "The last computed generation should be published");
+        assertEquals(result, snapshot.getCells(), "The published cells should match the result of the run");
+        assertEquals(new BoundingBox(1, -1, 1, 1), snapshot.getBoundingBox(), "The blinker should be vertical");
+        assertEquals(1, snapshot.countIn(new BoundingBox(0, 1, 5, 5)), "One cell should be in the upper region");
+        assertEquals(List.of(new Cell(1, 1)), snapshot.cellsIn(new BoundingBox(0, 1, 5, 5)),
+                "The top cell should be found in the upper region");
+    }
+
+    @Test
+    @DisplayName("Readers see consistent, increasing snapshots while the run is stepping")
+
+    void latest_ConcurrentReaders_ConsistentSnapshots() throws InterruptedException {
+        Random random = new Random(33);
+        Set<Cell> soup = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            soup.add(new Cell(random.nextInt(50), random.nextInt(50)));
+        }
+        SnapshotPublisher publisher = new SnapshotPublisher();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicLong reads = new AtomicLong();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread reader = new Thread(() -> {
+                long lastGeneration = -1;
+                while (running.get()) {
+                    GenerationSnapshot snapshot = publisher.latest();
+                    if (snapshot == null) {
+                        continue;
+                    }
+                    if (snapshot.getGeneration() < lastGeneration) {
+                        failure.set("Generations went backwards");
+                    }
+                    if (snapshot.getPopulation() != snapshot.getCells().size()
+                            || snapshot.countIn(new BoundingBox(-1000, -1000, 1000, 1000)) != snapshot.getPopulation()) {
+                        failure.set("Snapshot changed while being read");
+                    }
+                    lastGeneration = snapshot.getGeneration();
+                    reads.incrementAndGet();
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        new GameOfLife().runGenerations(200, soup, new GameConfig(false, false, false).addListener(publisher));
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get(), "Readers should only see consistent snapshots");
+        assertEquals(199, publisher.latest().getGeneration(), "Every generation should have been published");
+        assertTrue(reads.get() > 0, "Readers should have read snapshots during the run");
+    }
+}
@@ -0,0 +1,89 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SoakBenchmarkTest {
+
+    private static Properties report(String generations, String cellsPerSecond, String gcMillis, String population) {
+        Properties report = new Properties();
+        report.setProperty("generations", generations);
+        report.setProperty("acorn.cellsPerSecond", cellsPerSecond);
+        report.setProperty("acorn.gcMillis", gcMillis);
+        report.setProperty("acorn.finalPopulation", population);
+        return report;
+    }
+
+    @Test
+    @DisplayName("The corpus holds the examples, methuselahs and soups")
+
+    void corpus_BundledExamples_AllPatternsIncluded() throws IOException {
+        Map<String, Set<Cell>> corpus = SoakBenchmark.corpus(Path.of("src/test/resources/examples"));
+
+        assertTrue(corpus.containsKey("blinker"), "Bundled examples should be part of the corpus");
+        assertTrue(corpus.containsKey("r-pentomino"), "The R-pentomino should be part of the corpus");
+        assertTrue(corpus.containsKey("acorn"), "The acorn should be part of the corpus");
+        assertTrue(corpus.containsKey("soup-35"), "Random soups should be part of the corpus");
+        assertEquals(corpus.get("soup-50"), SoakBenchmark.corpus(null).get("soup-50"), "Soups should be seeded");
+    }
+
+    @Test
+    @DisplayName("A short run reports every metric for every pattern")
+
+    void run_ShortRun_MetricsReported() throws IOException {
+        Map<String, Set<Cell>> corpus = SoakBenchmark.corpus(null);
+
+        Properties report = SoakBenchmark.run(corpus, 20);
+
+        for (String pattern : corpus.keySet()) {
+            for (SoakBenchmark.Metric metric : SoakBenchmark.Metric.values()) {
+                assertTrue(report.containsKey(pattern + "." + metric.key), pattern + " should report " + metric.key);
+            }
+        }
+        assertTrue(Double.parseDouble(report.getProperty("acorn.cellsPerSecond")) > 0, "Throughput should be measured");
+    }
+
+    @Test
+    @DisplayName("Changes within the tolerance are not regressions")
+
+    void compare_WithinTolerance_NoRegressions() {
+        Properties baseline = report("1000", "1000.0", "10.0", "633.0");
+        Properties current = report("1000", "800.0", "55.0", "633.0");
+
+        List<String> regressions = SoakBenchmark.compare(current, baseline, 0.25);
+
+        assertTrue(regressions.isEmpty(), "Small changes should be tolerated: " + regressions);
+    }
+
+    @Test
+    @DisplayName("Slower throughput and different results are regressions")
+
+    void compare_SlowerAndDifferentResult_RegressionsReported() {
+        Properties baseline = report("1000", "1000.0", "10.0", "633.0");
+        Properties current = report("1000", "700.0", "10.0", "634.0");
+
+        List<String> regressions = SoakBenchmark.compare(current, baseline, 0.25);
+
+        assertEquals(2, regressions.size(), "Both throughput and population should be reported");
+    }
+
+    @Test
+    @DisplayName("Reports of runs with different lengths cannot be compared")
+
+    void compare_DifferentGenerations_Reported() {
+        List<String> regressions = SoakBenchmark.compare(report("10", "1.0", "1.0", "1.0"),
+                report("1000", "1.0", "1.0", "1.0"), 0.25);
+
+        assertEquals(1, regressions.size(), "A mismatched run length should be reported");
+    }
+}
@@ -0,0 +1,82 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SoupSearchTest {
+
+    private static boolean onEdge(Set<Cell> cells) {
+        BoundingBox box = BoundingBox.of(cells);
+        int last = SoupSearch.UNIVERSE_SIZE - 1;
+        return box != null && (box.minX() <= 0 || box.minY() <= 0 || box.maxX() >= last || box.maxY() >= last);
+    }
+
+    @Test
+    @DisplayName("Every soup of a batch ends the same way as running it with GameOfLife")
+
+    void runBatch_RandomSoups_MatchGameOfLife() {
+        int maxGenerations = 400;
+        SoupSearch.SoupResult[] results = SoupSearch.runBatch(35, 0, SoupSearch.BATCH_SIZE, maxGenerations);
+        GameOfLife game = new GameOfLife();
+
+        for (SoupSearch.SoupResult result : results) {
+            List<Set<Cell>> generations = new ArrayList<>();
+            Set<Cell> cells = SoupSearch.soupCells(35, result.index());
+            generations.add(cells);
+            for (int generation = 1; generation <= result.generation(); generation++) {
+                assertTrue(!onEdge(cells), "Soup " + result.index() + " should not reach the edge before it is retired");
+                cells = game.getNextGeneration(cells);
+                generations.add(cells);
+            }
+
+            assertEquals(cells.size(), result.population(), "Population of soup " + result.index() + " should match");
+            switch (result.outcome()) {
+                case STABILIZED -> assertEquals(generations.get(result.generation() - result.period()), cells,
+                        "Soup " + result.index() + " should repeat after its period");
+                case ESCAPED -> assertTrue(onEdge(cells), "Soup " + result.index() + " should touch the edge");
+                case UNSETTLED -> assertEquals(maxGenerations, result.generation(),
+                        "Unsettled soups should run to the limit");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A search gives the same totals on one thread and on several")
+
+    void run_DifferentThreadCounts_SameSummary() {
+        SoupSearch.Summary single;
+        SoupSearch.Summary parallel;
+        try (SoupSearch singleSearch = new SoupSearch(1, 2000); SoupSearch parallelSearch = new SoupSearch(4, 2000)) {
+            single = singleSearch.run(7, 500);
+            parallel = parallelSearch.run(7, 500);
+        }
+
+        assertEquals(500, single.getSoups(), "Every soup should be run");
+        long total = 0;
+        for (SoupSearch.Outcome outcome : SoupSearch.Outcome.values()) {
+            assertEquals(single.getCount(outcome), parallel.getCount(outcome), outcome + " count should not change");
+            total += single.getCount(outcome);
+        }
+        assertEquals(500, total, "Every soup should have exactly one outcome");
+        assertEquals(single.getPeriods(), parallel.getPeriods(), "Periods should not change");
+        assertEquals(single.getGenerations(), parallel.getGenerations(), "Generations run should not change");
+        assertEquals(single.getLongestIndex(), parallel.getLongestIndex(), "The longest soup should not change");
+        assertTrue(single.getSoupsPerHour() > 0, "Throughput should be measured");
+    }
+
+    @Test
+    @DisplayName("Invalid search settings throw an exception")
+
+    void constructor_InvalidSettings_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new SoupSearch(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new SoupSearch(2, 0));
+    }
+}
@@ -0,0 +1,117 @@
+package com.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpatialIndexTest {
+
+    @Test
+    @DisplayName("Rectangle queries and counts match a full scan")
+
+    void query_RandomRegions_MatchFullScan() {
+        Set<Cell> cells = EngineTestSupport.moved(EngineTestSupport.soup(34, 600, 0.014), -300, -300);
+        SpatialIndex index = SpatialIndex.of(cells);
+        Random random = new Random(35);
+
+        for (int i = 0; i < 200; i++) {
+            long minX = random.nextInt(700) - 350;
+            long minY = random.nextInt(700) - 350;
+            BoundingBox region = new BoundingBox(minX, minY, minX + random.nextInt(300), minY + random.nextInt(300));
+
+            List<Cell> expected = new ArrayList<>();
+            for (Cell cell : cells) {
+                if (region.contains(cell)) {
+                    expected.add(cell);
+                }
+            }
+            expected.sort(Comparator.comparingLong(Cell::y).thenComparingLong(Cell::x));
+
+            assertEquals(expected, index.query(region), "Query should find the cells in the region in row order");
+            assertEquals(expected.size(), index.count(region), "Count should match the cells in the region");
+        }
+    }
+
+    @Test
+    @DisplayName("Nearest cell matches a full scan, including far away cells")
+
+    void nearest_RandomPoints_MatchFullScan() {
+        Set<Cell> cells = EngineTestSupport.moved(EngineTestSupport.soup(36, 2000, 0.000075), -1000, -1000);
+        cells.add(new Cell(1_000_000_000L, -1_000_000_000L));
+        SpatialIndex index = SpatialIndex.of(cells);
+        Random random = new Random(37);
+
+        for (int i = 0; i < 200; i++) {
+            long x = random.nextInt(4000) - 2000;
+            long y = random.nextInt(4000) - 2000;
+            if (i % 20 == 0) {
+                x = 999_999_000L; // Close to the lone far away cell only
+                y = -999_999_000L;
+            }
+            Cell expected = null;
+            double best = Double.POSITIVE_INFINITY;
+            for (Cell cell : cells) {
+                double dx = (double) cell.x() - x, dy = (double) cell.y() - y;
+                double distance = dx * dx + dy * dy;
+                if (distance < best || (distance == best && (cell.y() < expected.y()
+                        || (cell.y() == expected.y() && cell.x() < expected.x())))) {
+                    expected = cell;
+                    best = distance;
+                }
+            }
+            assertEquals(expected, index.nearest(x, y), "Nearest cell to " + x + ", " + y + " should match a scan");
+        }
+    }
+
+    @Test
+    @DisplayName("Added and removed cells are reflected in queries, extreme coordinates included")
+
+    void addRemove_ExtremeCoordinates_Tracked() {
+        SpatialIndex index = new SpatialIndex();
+        Cell corner = new Cell(Long.MAX_VALUE, Long.MIN_VALUE);
+
+        assertTrue(index.add(corner), "A new cell should be added");
+        assertFalse(index.add(corner), "A cell should only be added once");
+        assertTrue(index.add(new Cell(-1, -1)), "A negative cell should be added");
+        assertEquals(2, index.count(new BoundingBox(Long.MIN_VALUE, Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE)),
+                "The whole board should hold both cells");
+        assertEquals(List.of(corner), index.query(new BoundingBox(0, Long.MIN_VALUE, Long.MAX_VALUE, 0)),
+                "Only the corner cell should be in that quadrant");
+        assertEquals(corner, index.nearest(Long.MAX_VALUE - 5, Long.MIN_VALUE + 5), "The corner should be nearest");
+
+        assertTrue(index.remove(corner), "A present cell should be removed");
+        assertFalse(index.contains(corner), "A removed cell should be gone");
+        assertEquals(new Cell(-1, -1), index.nearest(0, 0), "The remaining cell should be nearest");
+        assertTrue(index.remove(new Cell(-1, -1)), "A present cell should be removed");
+        assertEquals(0, index.size(), "The index should be empty");
+        assertNull(index.nearest(0, 0), "An empty index has no nearest cell");
+    }
+
+    @Test
+    @DisplayName("The index kept by generation stats follows every step")
+
+    void getIndex_RandomSoup_MatchesGeneration() {
+        Set<Cell> generation = EngineTestSupport.moved(EngineTestSupport.soup(38, 80, 0.09), -40, -40);
+        GameOfLife game = new GameOfLife(new GenerationStats());
+        BoundingBox window = new BoundingBox(-10, -10, 10, 10);
+
+        for (int step = 0; step < 40; step++) {
+            generation = game.getNextGeneration(generation);
+            SpatialIndex index = game.getStats().getIndex();
+
+            assertEquals(generation.size(), index.size(), "The index should hold every living cell");
+            assertEquals(SpatialIndex.of(generation).query(window), index.query(window),
+                    "The maintained index should match a fresh one");
+        }
+    }
+}